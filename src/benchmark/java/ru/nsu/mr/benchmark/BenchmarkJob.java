@@ -0,0 +1,15 @@
+package ru.nsu.mr.benchmark;
+
+import ru.nsu.mr.MapReduceJob;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Supplier;
+
+public record BenchmarkJob(String name, Supplier<MapReduceJob<?, ?, ?, ?>> job, InputGenerator inputGenerator) {
+    @FunctionalInterface
+    public interface InputGenerator {
+        List<Path> generate(Path directory, long bytes) throws IOException;
+    }
+}
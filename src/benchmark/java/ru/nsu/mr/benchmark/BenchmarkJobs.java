@@ -0,0 +1,203 @@
+package ru.nsu.mr.benchmark;
+
+import ru.nsu.mr.*;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+
+import static ru.nsu.mr.PredefinedFunctions.*;
+
+public final class BenchmarkJobs {
+    private static final int KEYS_COUNT = 100_000;
+
+    public static final Map<String, BenchmarkJob> ALL = Map.of(
+        "wordcount", new BenchmarkJob("wordcount", BenchmarkJobs::wordCount,
+            (directory, bytes) -> {
+                Path input = directory.resolve("zipf-text.txt");
+                DatasetGenerator.zipfText(input, bytes, KEYS_COUNT, 1.1, 1);
+                return List.of(input);
+            }),
+        "sort", new BenchmarkJob("sort", BenchmarkJobs::sort,
+            (directory, bytes) -> {
+                Path input = directory.resolve("wide-records.txt");
+                DatasetGenerator.wideRecords(input, bytes, Integer.MAX_VALUE, 8, 12, 2);
+                return List.of(input);
+            }),
+        "aggregate", new BenchmarkJob("aggregate", BenchmarkJobs::aggregate,
+            (directory, bytes) -> {
+                Path input = directory.resolve("skewed-records.txt");
+                DatasetGenerator.skewedRecords(input, bytes, KEYS_COUNT, 0.3, 3);
+                return List.of(input);
+            }),
+        "join", new BenchmarkJob("join", BenchmarkJobs::join,
+            (directory, bytes) -> {
+                Path left = directory.resolve("left-records.txt");
+                Path right = directory.resolve("right-dimension.txt");
+                DatasetGenerator.uniformRecords(left, bytes, KEYS_COUNT, 4);
+                DatasetGenerator.dimensionRecords(right, KEYS_COUNT, 5);
+                return List.of(left, right);
+            })
+    );
+
+    private BenchmarkJobs() {
+    }
+
+    public static MapReduceJob<?, ?, ?, ?> wordCount() {
+        IntMapper<String, String, String> mapper = (input, output) -> {
+            while (input.hasNext()) {
+                String line = input.next().value();
+                int start = 0;
+                for (int i = 0; i <= line.length(); ++i) {
+                    if (i == line.length() || line.charAt(i) == ' ') {
+                        if (i > start) {
+                            output.putInt(line.substring(start, i), 1);
+                        }
+                        start = i + 1;
+                    }
+                }
+            }
+        };
+        SumReducer reducer = new SumReducer();
+        return new MapReduceJob<>(
+            mapper,
+            reducer,
+            STRING_SERIALIZER,
+            INTEGER_SERIALIZER,
+            STRING_DESERIALIZER,
+            INTEGER_DESERIALIZER,
+            STRING_SERIALIZER,
+            INTEGER_SERIALIZER,
+            STRING_KEY_COMPARATOR,
+            STRING_KEY_HASH
+        ).setCombiner(reducer).setRawComparator(STRING_RAW_COMPARATOR);
+    }
+
+    public static MapReduceJob<?, ?, ?, ?> sort() {
+        Mapper<String, String, String, String> mapper = (input, output) -> {
+            while (input.hasNext()) {
+                String line = input.next().value();
+                int separator = line.indexOf(' ');
+                output.put(line.substring(0, separator), line.substring(separator + 1));
+            }
+        };
+        Reducer<String, String, String, String> reducer = (key, values, output) -> {
+            while (values.hasNext()) {
+                output.put(key, values.next());
+            }
+        };
+        return new MapReduceJob<>(
+            mapper,
+            reducer,
+            STRING_SERIALIZER,
+            STRING_SERIALIZER,
+            STRING_DESERIALIZER,
+            STRING_DESERIALIZER,
+            STRING_SERIALIZER,
+            STRING_SERIALIZER,
+            STRING_KEY_COMPARATOR,
+            STRING_KEY_HASH
+        ).setRawComparator(STRING_RAW_COMPARATOR).setPartitioner(new TotalOrderPartitioner<>(10_000));
+    }
+
+    public static MapReduceJob<?, ?, ?, ?> aggregate() {
+        LongMapper<String, String, String> mapper = (input, output) -> {
+            while (input.hasNext()) {
+                String line = input.next().value();
+                int separator = line.indexOf(' ');
+                output.putLong(line.substring(0, separator), Long.parseLong(line, separator + 1, line.length(), 10));
+            }
+        };
+        LongSumReducer reducer = new LongSumReducer();
+        return new MapReduceJob<>(
+            mapper,
+            reducer,
+            STRING_SERIALIZER,
+            LONG_SERIALIZER,
+            STRING_DESERIALIZER,
+            LONG_DESERIALIZER,
+            STRING_SERIALIZER,
+            LONG_SERIALIZER,
+            STRING_KEY_COMPARATOR,
+            STRING_KEY_HASH
+        ).setCombiner(reducer).setRawComparator(STRING_RAW_COMPARATOR);
+    }
+
+    public static MapReduceJob<?, ?, ?, ?> join() {
+        Mapper<String, String, String, String> mapper = (input, output) -> {
+            while (input.hasNext()) {
+                Pair<String, String> record = input.next();
+                String line = record.value();
+                int separator = line.indexOf(' ');
+                String side = record.key().contains("right-") ? "R" : "L";
+                output.put(line.substring(0, separator), side + line.substring(separator + 1));
+            }
+        };
+        Reducer<String, String, String, String> reducer = (key, values, output) -> {
+            List<String> left = new ArrayList<>();
+            String right = null;
+            while (values.hasNext()) {
+                String value = values.next();
+                if (value.charAt(0) == 'R') {
+                    right = value.substring(1);
+                } else {
+                    left.add(value.substring(1));
+                }
+            }
+            if (right != null) {
+                for (String value : left) {
+                    output.put(key, value + " " + right);
+                }
+            }
+        };
+        return new MapReduceJob<>(
+            mapper,
+            reducer,
+            STRING_SERIALIZER,
+            STRING_SERIALIZER,
+            STRING_DESERIALIZER,
+            STRING_DESERIALIZER,
+            STRING_SERIALIZER,
+            STRING_SERIALIZER,
+            STRING_KEY_COMPARATOR,
+            STRING_KEY_HASH
+        ).setRawComparator(STRING_RAW_COMPARATOR);
+    }
+
+    private static class SumReducer implements IntReducer<String, String, Integer>, Combiner<String, Integer> {
+        @Override
+        public void reduceInts(String key, PrimitiveIterator.OfInt values, OutputContext<String, Integer> output) {
+            int sum = 0;
+            while (values.hasNext()) {
+                sum += values.nextInt();
+            }
+            output.put(key, sum);
+        }
+
+        @Override
+        public void reduce(String key, Iterator<Integer> values, OutputContext<String, Integer> output) {
+            IntReducer.super.reduce(key, values, output);
+        }
+    }
+
+    private static class LongSumReducer
+        implements LongReducer<String, String, Long>, Combiner<String, Long>, AssociativeReducer<String, Long>
+    {
+        @Override
+        public void reduceLongs(String key, PrimitiveIterator.OfLong values, OutputContext<String, Long> output) {
+            long sum = 0;
+            while (values.hasNext()) {
+                sum += values.nextLong();
+            }
+            output.put(key, sum);
+        }
+
+        @Override
+        public void reduce(String key, Iterator<Long> values, OutputContext<String, Long> output) {
+            LongReducer.super.reduce(key, values, output);
+        }
+    }
+}
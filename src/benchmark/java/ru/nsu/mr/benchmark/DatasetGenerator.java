@@ -0,0 +1,87 @@
+package ru.nsu.mr.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+public final class DatasetGenerator {
+    private DatasetGenerator() {
+    }
+
+    public static void zipfText(Path path, long bytes, int vocabularySize, double exponent, long seed) throws IOException {
+        ZipfSampler sampler = new ZipfSampler(vocabularySize, exponent, seed);
+        Random random = new Random(seed);
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            long written = 0;
+            while (written < bytes) {
+                StringBuilder line = new StringBuilder();
+                int wordsCount = 8 + random.nextInt(12);
+                for (int i = 0; i < wordsCount; ++i) {
+                    if (i > 0) {
+                        line.append(' ');
+                    }
+                    line.append('w').append(Integer.toString(sampler.next(), 36));
+                }
+                written += writeLine(writer, line);
+            }
+        }
+    }
+
+    public static void uniformRecords(Path path, long bytes, int keysCount, long seed) throws IOException {
+        skewedRecords(path, bytes, keysCount, 0, seed);
+    }
+
+    public static void skewedRecords(Path path, long bytes, int keysCount, double hotKeyFraction, long seed)
+        throws IOException
+    {
+        Random random = new Random(seed);
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            long written = 0;
+            while (written < bytes) {
+                int key = random.nextDouble() < hotKeyFraction ? 0 : random.nextInt(keysCount);
+                written += writeLine(writer, new StringBuilder(key(key)).append(' ').append(random.nextInt(1000)));
+            }
+        }
+    }
+
+    public static void wideRecords(Path path, long bytes, int keysCount, int fieldsCount, int fieldSize, long seed)
+        throws IOException
+    {
+        Random random = new Random(seed);
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            long written = 0;
+            while (written < bytes) {
+                StringBuilder line = new StringBuilder(key(random.nextInt(keysCount))).append(' ');
+                for (int i = 0; i < fieldsCount; ++i) {
+                    if (i > 0) {
+                        line.append(',');
+                    }
+                    for (int j = 0; j < fieldSize; ++j) {
+                        line.append((char) ('a' + random.nextInt(26)));
+                    }
+                }
+                written += writeLine(writer, line);
+            }
+        }
+    }
+
+    public static void dimensionRecords(Path path, int keysCount, long seed) throws IOException {
+        Random random = new Random(seed);
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            for (int key = 0; key < keysCount; ++key) {
+                writeLine(writer, new StringBuilder(key(key)).append(" name").append(random.nextInt(1_000_000)));
+            }
+        }
+    }
+
+    static String key(int key) {
+        return String.format("k%08d", key);
+    }
+
+    private static int writeLine(BufferedWriter writer, CharSequence line) throws IOException {
+        writer.append(line).append('\n');
+        return line.length() + 1;
+    }
+}
@@ -0,0 +1,192 @@
+package ru.nsu.mr.benchmark;
+
+import ru.nsu.mr.*;
+import ru.nsu.mr.config.Configuration;
+import ru.nsu.mr.config.ConfigurationOption;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+public class JobBenchmark {
+    private static final double NANOS_PER_SECOND = 1e9;
+    private static final double BYTES_PER_MB = 1024 * 1024;
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parseOptions(args);
+        List<String> runners = list(options.getOrDefault("runners", "parallel"));
+        List<String> jobs = list(options.getOrDefault("jobs", "wordcount,sort,aggregate,join"));
+        List<String> sizesMb = list(options.getOrDefault("sizes-mb", "16"));
+        List<String> mappersCounts = list(options.getOrDefault("mappers", "4"));
+        List<String> reducersCounts = list(options.getOrDefault("reducers", "4"));
+        int workersCount = Integer.parseInt(options.getOrDefault(
+            "workers", String.valueOf(Runtime.getRuntime().availableProcessors())));
+        String codec = options.getOrDefault("codec", "none");
+        int repetitions = Integer.parseInt(options.getOrDefault("repetitions", "1"));
+        Path workDirectory = Files.createTempDirectory("job-benchmark");
+
+        List<String> results = new ArrayList<>();
+        System.out.printf("%-10s %-10s %7s %3s %3s %10s %9s %12s %9s %9s %9s %9s %9s%n",
+            "job", "runner", "size-mb", "M", "R", "time-ms", "MB/s", "records/s",
+            "map-ms", "sort-ms", "merge-ms", "reduce-ms", "heap-mb");
+        try {
+            for (String jobName : jobs) {
+                BenchmarkJob benchmarkJob = BenchmarkJobs.ALL.get(jobName);
+                if (benchmarkJob == null) {
+                    throw new IllegalArgumentException("Unknown job: " + jobName);
+                }
+                for (String sizeMb : sizesMb) {
+                    Path inputDirectory = Files.createDirectories(workDirectory.resolve(jobName + "-" + sizeMb));
+                    List<Path> inputFiles = benchmarkJob.inputGenerator()
+                        .generate(inputDirectory, (long) (Double.parseDouble(sizeMb) * BYTES_PER_MB));
+                    long inputBytes = 0;
+                    for (Path inputFile : inputFiles) {
+                        inputBytes += Files.size(inputFile);
+                    }
+
+                    for (String runner : runners) {
+                        for (String mappersCount : mappersCounts) {
+                            for (String reducersCount : reducersCounts) {
+                                Configuration configuration = new Configuration()
+                                    .set(ConfigurationOption.MAPPERS_COUNT, Integer.parseInt(mappersCount))
+                                    .set(ConfigurationOption.REDUCERS_COUNT, Integer.parseInt(reducersCount))
+                                    .set(ConfigurationOption.WORKERS_COUNT, workersCount)
+                                    .set(ConfigurationOption.INTERMEDIATE_COMPRESSION_CODEC, codec)
+                                    .set(ConfigurationOption.SKEW_SALT_SLOTS, Integer.parseInt(reducersCount));
+                                for (int i = 0; i < repetitions; ++i) {
+                                    results.add(runOnce(
+                                        benchmarkJob, runner, sizeMb, configuration, inputFiles, inputBytes, workDirectory));
+                                }
+                            }
+                        }
+                    }
+                    deleteDirectory(inputDirectory);
+                }
+            }
+        } finally {
+            deleteDirectory(workDirectory);
+        }
+
+        if (options.containsKey("results")) {
+            Path resultsFile = Path.of(options.get("results"));
+            Files.createDirectories(resultsFile.toAbsolutePath().getParent());
+            Files.writeString(resultsFile, "[\n" + String.join(",\n", results) + "\n]\n");
+            System.out.println("Results are saved to " + resultsFile);
+        }
+    }
+
+    private static String runOnce(
+        BenchmarkJob benchmarkJob,
+        String runnerName,
+        String sizeMb,
+        Configuration configuration,
+        List<Path> inputFiles,
+        long inputBytes,
+        Path workDirectory
+    ) throws IOException {
+        Path mappersOutputDirectory = Files.createTempDirectory(workDirectory, "mappers");
+        Path outputDirectory = Files.createTempDirectory(workDirectory, "outputs");
+        try {
+            System.gc();
+            List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+            heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+            JobResult result = run(benchmarkJob.job().get(), runnerName, inputFiles, configuration,
+                mappersOutputDirectory, outputDirectory);
+
+            long peakHeapBytes = 0;
+            for (MemoryPoolMXBean pool : heapPools) {
+                peakHeapBytes += pool.getPeakUsage().getUsed();
+            }
+            Counters counters = result.getCounters();
+            double seconds = result.getElapsedNanos() / NANOS_PER_SECOND;
+            long records = counters.get(TaskCounter.MAP_INPUT_RECORDS);
+            int mappersCount = configuration.get(ConfigurationOption.MAPPERS_COUNT);
+            int reducersCount = configuration.get(ConfigurationOption.REDUCERS_COUNT);
+            System.out.printf("%-10s %-10s %7s %3d %3d %10.1f %9.1f %12.0f %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                benchmarkJob.name(), runnerName, sizeMb, mappersCount, reducersCount,
+                result.getElapsedNanos() / 1e6, inputBytes / BYTES_PER_MB / seconds, records / seconds,
+                millis(counters, TaskCounter.MAP_TIME_NANOS), millis(counters, TaskCounter.SORT_TIME_NANOS),
+                millis(counters, TaskCounter.MERGE_TIME_NANOS), millis(counters, TaskCounter.REDUCE_TIME_NANOS),
+                peakHeapBytes / BYTES_PER_MB);
+
+            StringBuilder json = new StringBuilder("  {")
+                .append("\"job\": \"").append(benchmarkJob.name()).append("\", ")
+                .append("\"runner\": \"").append(runnerName).append("\", ")
+                .append("\"inputBytes\": ").append(inputBytes).append(", ")
+                .append("\"mappers\": ").append(mappersCount).append(", ")
+                .append("\"reducers\": ").append(reducersCount).append(", ")
+                .append("\"elapsedNanos\": ").append(result.getElapsedNanos()).append(", ")
+                .append("\"mbPerSecond\": ").append(inputBytes / BYTES_PER_MB / seconds).append(", ")
+                .append("\"recordsPerSecond\": ").append(records / seconds).append(", ")
+                .append("\"peakHeapBytes\": ").append(peakHeapBytes).append(", ")
+                .append("\"slowestMapTaskNanos\": ").append(result.getSlowestMapTask().elapsedNanos()).append(", ")
+                .append("\"slowestReduceTaskNanos\": ").append(result.getSlowestReduceTask().elapsedNanos()).append(", ")
+                .append("\"counters\": {");
+            String separator = "";
+            for (Map.Entry<String, Long> counter : counters.asMap().entrySet()) {
+                json.append(separator).append('"').append(counter.getKey()).append("\": ").append(counter.getValue());
+                separator = ", ";
+            }
+            return json.append("}}").toString();
+        } finally {
+            deleteDirectory(mappersOutputDirectory);
+            deleteDirectory(outputDirectory);
+        }
+    }
+
+    private static <K1, V1, K2, V2> JobResult run(
+        MapReduceJob<K1, V1, K2, V2> job,
+        String runnerName,
+        List<Path> inputFiles,
+        Configuration configuration,
+        Path mappersOutputDirectory,
+        Path outputDirectory
+    ) {
+        MapReduceRunner<K1, V1, K2, V2> runner = switch (runnerName) {
+            case "parallel" -> new MapReduceParallelRunner<>();
+            case "sequential" -> new MapReduceSequentialRunner<>();
+            default -> throw new IllegalArgumentException("Unknown runner: " + runnerName);
+        };
+        return runner.run(job, inputFiles, configuration, mappersOutputDirectory, outputDirectory);
+    }
+
+    private static double millis(Counters counters, TaskCounter counter) {
+        return counters.get(counter) / 1e6;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value, got: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    private static List<String> list(String value) {
+        return Arrays.asList(value.split(","));
+    }
+
+    private static void deleteDirectory(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> pathStream = Files.walk(path)) {
+            pathStream.sorted(Comparator.reverseOrder())
+                .map(Path::toFile)
+                .forEach(File::delete);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package ru.nsu.mr.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class ZipfSampler {
+    private final double[] cumulativeProbabilities;
+    private final Random random;
+
+    public ZipfSampler(int elementsCount, double exponent, long seed) {
+        this.cumulativeProbabilities = new double[elementsCount];
+        this.random = new Random(seed);
+        double sum = 0;
+        for (int i = 0; i < elementsCount; ++i) {
+            sum += 1 / Math.pow(i + 1, exponent);
+            cumulativeProbabilities[i] = sum;
+        }
+        for (int i = 0; i < elementsCount; ++i) {
+            cumulativeProbabilities[i] /= sum;
+        }
+    }
+
+    public int next() {
+        int index = Arrays.binarySearch(cumulativeProbabilities, random.nextDouble());
+        return Math.min(index >= 0 ? index : -(index + 1), cumulativeProbabilities.length - 1);
+    }
+}
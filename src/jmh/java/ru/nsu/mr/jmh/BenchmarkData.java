@@ -0,0 +1,39 @@
+package ru.nsu.mr.jmh;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+final class BenchmarkData {
+    private static final char[] ALPHABET = "abcdefghijklmnopqrstuvwxyz0123456789".toCharArray();
+
+    private BenchmarkData() {
+    }
+
+    static List<String> randomKeys(int count, int keySize, long seed) {
+        Random random = new Random(seed);
+        List<String> keys = new ArrayList<>(count);
+        char[] key = new char[keySize];
+        for (int i = 0; i < count; ++i) {
+            for (int j = 0; j < keySize; ++j) {
+                key[j] = ALPHABET[random.nextInt(ALPHABET.length)];
+            }
+            keys.add(new String(key));
+        }
+        return keys;
+    }
+
+    static void deleteDirectory(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder())
+                .map(Path::toFile)
+                .forEach(File::delete);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package ru.nsu.mr.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.nsu.mr.io.CompressionCodecs;
+import ru.nsu.mr.sinks.BinaryFileSink;
+import ru.nsu.mr.sources.BinaryKeyValueFileIterator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static ru.nsu.mr.PredefinedFunctions.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryKeyValueFileIteratorBenchmark {
+    @Param({"100000"})
+    int recordsCount;
+
+    @Param({"8", "64"})
+    int keySize;
+
+    @Param({"none", "lz", "deflate"})
+    String codec;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("binary_key_value_benchmark", ".bin");
+        List<String> keys = BenchmarkData.randomKeys(recordsCount, keySize, 42);
+        try (BinaryFileSink<String, Integer> sink = new BinaryFileSink<>(
+                STRING_BINARY_SERIALIZER, INTEGER_BINARY_SERIALIZER, file, CompressionCodecs.forName(codec))) {
+            for (int i = 0; i < recordsCount; ++i) {
+                sink.put(keys.get(i), i);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void readAll(Blackhole blackhole) throws IOException {
+        try (BinaryKeyValueFileIterator<String, Integer> iterator =
+                 new BinaryKeyValueFileIterator<>(file, STRING_BINARY_DESERIALIZER, INTEGER_BINARY_DESERIALIZER)) {
+            while (iterator.hasNext()) {
+                blackhole.consume(iterator.next());
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package ru.nsu.mr.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.nsu.mr.Pair;
+import ru.nsu.mr.sources.GroupedKeyValuesIterator;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GroupedKeyValuesIteratorBenchmark {
+    @Param({"1000000"})
+    int recordsCount;
+
+    @Param({"1", "10", "1000"})
+    int groupSize;
+
+    private List<Pair<String, Integer>> records;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        records = new ArrayList<>(recordsCount);
+        for (int i = 0; i < recordsCount; ++i) {
+            records.add(new Pair<>(String.format("key%010d", i / groupSize), i));
+        }
+    }
+
+    @Benchmark
+    public void groupAll(Blackhole blackhole) {
+        GroupedKeyValuesIterator<String, Integer> groups = new GroupedKeyValuesIterator<>(records.iterator());
+        while (groups.hasNext()) {
+            Pair<String, Iterator<Integer>> group = groups.next();
+            blackhole.consume(group.key());
+            Iterator<Integer> values = group.value();
+            while (values.hasNext()) {
+                blackhole.consume(values.next());
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package ru.nsu.mr.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.nsu.mr.sinks.FileSink;
+import ru.nsu.mr.sources.KeyValueFileIterator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static ru.nsu.mr.PredefinedFunctions.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyValueFileIteratorBenchmark {
+    @Param({"100000"})
+    int recordsCount;
+
+    @Param({"8", "64"})
+    int keySize;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        file = Files.createTempFile("key_value_benchmark", ".txt");
+        List<String> keys = BenchmarkData.randomKeys(recordsCount, keySize, 42);
+        try (FileSink<String, Integer> sink = new FileSink<>(STRING_SERIALIZER, INTEGER_SERIALIZER, file)) {
+            for (int i = 0; i < recordsCount; ++i) {
+                sink.put(keys.get(i), i);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void readAll(Blackhole blackhole) throws IOException {
+        try (KeyValueFileIterator<String, Integer> iterator =
+                 new KeyValueFileIterator<>(file, STRING_DESERIALIZER, INTEGER_DESERIALIZER)) {
+            while (iterator.hasNext()) {
+                blackhole.consume(iterator.next());
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package ru.nsu.mr.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.nsu.mr.Pair;
+import ru.nsu.mr.sources.MergedKeyValueIterator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static ru.nsu.mr.PredefinedFunctions.STRING_KEY_COMPARATOR;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MergedKeyValueIteratorBenchmark {
+    @Param({"1000000"})
+    int recordsCount;
+
+    @Param({"16"})
+    int keySize;
+
+    @Param({"2", "16", "128"})
+    int runsCount;
+
+    private List<List<Pair<String, Integer>>> runs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<String> keys = BenchmarkData.randomKeys(recordsCount, keySize, 42);
+        runs = new ArrayList<>(runsCount);
+        for (int i = 0; i < runsCount; ++i) {
+            runs.add(new ArrayList<>(recordsCount / runsCount + 1));
+        }
+        for (int i = 0; i < recordsCount; ++i) {
+            runs.get(i % runsCount).add(new Pair<>(keys.get(i), i));
+        }
+        for (List<Pair<String, Integer>> run : runs) {
+            run.sort(Comparator.comparing(Pair::key, STRING_KEY_COMPARATOR));
+        }
+    }
+
+    @Benchmark
+    public void mergeAll(Blackhole blackhole) throws IOException {
+        List<Iterator<Pair<String, Integer>>> iterators = new ArrayList<>(runsCount);
+        for (List<Pair<String, Integer>> run : runs) {
+            iterators.add(run.iterator());
+        }
+        try (MergedKeyValueIterator<String, Integer> merged = new MergedKeyValueIterator<>(iterators, STRING_KEY_COMPARATOR)) {
+            while (merged.hasNext()) {
+                blackhole.consume(merged.next());
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package ru.nsu.mr.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import ru.nsu.mr.sinks.BinaryFileSink;
+import ru.nsu.mr.sinks.FileSystemSink;
+import ru.nsu.mr.sinks.PartitionedFileSink;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static ru.nsu.mr.PredefinedFunctions.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PartitionedFileSinkBenchmark {
+    @Param({"100000"})
+    int recordsCount;
+
+    @Param({"8", "64"})
+    int keySize;
+
+    @Param({"4", "64"})
+    int partitionsCount;
+
+    private Path directory;
+    private List<String> keys;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("partitioned_sink_benchmark");
+        keys = BenchmarkData.randomKeys(recordsCount, keySize, 42);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkData.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public void partitionAll() throws IOException {
+        List<FileSystemSink<String, Integer>> sinks = new ArrayList<>(partitionsCount);
+        for (int i = 0; i < partitionsCount; ++i) {
+            sinks.add(new BinaryFileSink<>(
+                STRING_BINARY_SERIALIZER, INTEGER_BINARY_SERIALIZER, directory.resolve("partition-" + i + ".bin")));
+        }
+        try (PartitionedFileSink<String, Integer> sink = new PartitionedFileSink<>(sinks, STRING_KEY_HASH)) {
+            for (int i = 0; i < recordsCount; ++i) {
+                sink.put(keys.get(i), i);
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package ru.nsu.mr.jmh;
+
+import org.openjdk.jmh.annotations.*;
+import ru.nsu.mr.sinks.SortedFileSink;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static ru.nsu.mr.PredefinedFunctions.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortedFileSinkBenchmark {
+    @Param({"100000"})
+    int recordsCount;
+
+    @Param({"8", "64"})
+    int keySize;
+
+    @Param({"10000", "100000"})
+    int bufferSize;
+
+    private Path directory;
+    private List<String> keys;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("sorted_sink_benchmark");
+        keys = BenchmarkData.randomKeys(recordsCount, keySize, 42);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        BenchmarkData.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public long sortSpillAndMerge() throws IOException {
+        Path output = directory.resolve("output.bin");
+        try (SortedFileSink<String, Integer> sink = new SortedFileSink<>(
+            STRING_BINARY_SERIALIZER,
+            INTEGER_BINARY_SERIALIZER,
+            STRING_BINARY_DESERIALIZER,
+            INTEGER_BINARY_DESERIALIZER,
+            output,
+            bufferSize,
+            STRING_KEY_COMPARATOR
+        )) {
+            for (int i = 0; i < recordsCount; ++i) {
+                sink.put(keys.get(i), i);
+            }
+        }
+        return Files.size(output);
+    }
+}
@@ -0,0 +1,4 @@
+package ru.nsu.mr;
+
+public interface AssociativeReducer<KEY, VALUE> extends Reducer<KEY, VALUE, KEY, VALUE> {
+}
@@ -0,0 +1,23 @@
+package ru.nsu.mr;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+@FunctionalInterface
+public interface BinaryDeserializer<T> extends Serializable {
+    T deserialize(ByteBuffer input);
+
+    static <T> BinaryDeserializer<T> of(Deserializer<T> deserializer) {
+        return input -> deserializer.deserialize(decodeUtf8(input));
+    }
+
+    static String decodeUtf8(ByteBuffer input) {
+        if (input.hasArray()) {
+            return new String(input.array(), input.arrayOffset() + input.position(), input.remaining(), StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[input.remaining()];
+        input.get(input.position(), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,13 @@
+package ru.nsu.mr;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+
+@FunctionalInterface
+public interface BinarySerializer<T> extends Serializable {
+    byte[] serialize(T input);
+
+    static <T> BinarySerializer<T> of(Serializer<T> serializer) {
+        return input -> serializer.serialize(input).getBytes(StandardCharsets.UTF_8);
+    }
+}
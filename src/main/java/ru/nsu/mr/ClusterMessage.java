@@ -0,0 +1,72 @@
+package ru.nsu.mr;
+
+import ru.nsu.mr.config.Configuration;
+import ru.nsu.mr.shuffle.ShuffleLocation;
+
+import java.io.Serializable;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+sealed interface ClusterMessage extends Serializable {
+    enum Phase {
+        MAP,
+        SALT_COMBINE,
+        REDUCE;
+
+        List<? extends Task> tasks(JobPlan<?, ?, ?, ?> plan) {
+            return switch (this) {
+                case MAP -> plan.getMapTasks();
+                case SALT_COMBINE -> plan.getSaltCombineTasks();
+                case REDUCE -> plan.getReduceTasks();
+            };
+        }
+    }
+
+    record JobSpec(
+        MapReduceJob<?, ?, ?, ?> job,
+        Partitioner<?> partitioner,
+        Configuration configuration,
+        List<String> inputFiles,
+        String mappersOutputDirectory,
+        String outputDirectory
+    ) implements ClusterMessage {
+        JobPlan<?, ?, ?, ?> createPlan() {
+            return createPlan(job);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <K, V, KO, VO> JobPlan<K, V, KO, VO> createPlan(MapReduceJob<K, V, KO, VO> typedJob) {
+            return new JobPlan<>(
+                typedJob,
+                (Partitioner<K>) partitioner,
+                inputFiles.stream().map(Path::of).toList(),
+                configuration,
+                Path.of(mappersOutputDirectory),
+                Path.of(outputDirectory)
+            );
+        }
+    }
+
+    record WorkerHello(long pid) implements ClusterMessage {
+    }
+
+    // Pipelined locations go to reduce tasks hosted by the worker, which fetch them while maps are still running.
+    record TaskAssignment(
+        Phase phase,
+        int index,
+        List<ShuffleLocation> shuffleLocations,
+        Map<Integer, List<ShuffleLocation>> pipelinedLocations
+    ) implements ClusterMessage {
+    }
+
+    record TaskCompletion(
+        TaskMetrics metrics,
+        List<ShuffleLocation> outputLocations,
+        RuntimeException failure
+    ) implements ClusterMessage {
+    }
+
+    record Shutdown() implements ClusterMessage {
+    }
+}
@@ -0,0 +1,112 @@
+package ru.nsu.mr;
+
+import ru.nsu.mr.shuffle.ShuffleLocation;
+import ru.nsu.mr.shuffle.ShuffleServer;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ClusterWorker {
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        int coordinatorPort = Integer.parseInt(args[0]);
+        // Pipelined reducers wait for their inputs, daemon threads let the worker exit when the job is cancelled.
+        ExecutorService reduceExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        });
+        Map<Integer, Future<ClusterMessage.TaskCompletion>> pipelinedReduces = new HashMap<>();
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), coordinatorPort);
+             ObjectOutputStream output = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            output.writeObject(new ClusterMessage.WorkerHello(ProcessHandle.current().pid()));
+            output.flush();
+            ObjectInputStream input = new ObjectInputStream(new BufferedInputStream(socket.getInputStream()));
+            ClusterMessage.JobSpec jobSpec = (ClusterMessage.JobSpec) input.readObject();
+            JobPlan<?, ?, ?, ?> plan = jobSpec.createPlan();
+
+            try (ShuffleServer shuffleServer = new ShuffleServer(Path.of(jobSpec.mappersOutputDirectory()))) {
+                while (input.readObject() instanceof ClusterMessage.TaskAssignment assignment) {
+                    for (Map.Entry<Integer, List<ShuffleLocation>> locations : assignment.pipelinedLocations().entrySet()) {
+                        ReduceTask<?, ?, ?, ?> reduceTask = plan.getReduceTasks().get(locations.getKey());
+                        if (!pipelinedReduces.containsKey(locations.getKey())) {
+                            reduceTask.pipelineFetches();
+                            pipelinedReduces.put(locations.getKey(),
+                                reduceExecutor.submit(() -> execute(reduceTask, shuffleServer)));
+                        }
+                        reduceTask.locationsReady(locations.getValue());
+                    }
+                    output.writeObject(execute(plan, assignment, shuffleServer, pipelinedReduces));
+                    output.reset();
+                    output.flush();
+                }
+            }
+        } catch (EOFException e) {
+            // The coordinator went away, there is nobody left to report to.
+        } finally {
+            reduceExecutor.shutdownNow();
+        }
+    }
+
+    private static ClusterMessage.TaskCompletion execute(
+        JobPlan<?, ?, ?, ?> plan,
+        ClusterMessage.TaskAssignment assignment,
+        ShuffleServer shuffleServer,
+        Map<Integer, Future<ClusterMessage.TaskCompletion>> pipelinedReduces
+    ) {
+        Task task = assignment.phase().tasks(plan).get(assignment.index());
+        if (task instanceof ReduceTask<?, ?, ?, ?> reduceTask) {
+            Future<ClusterMessage.TaskCompletion> pipelined = pipelinedReduces.remove(assignment.index());
+            if (pipelined != null) {
+                reduceTask.locationsReady(assignment.shuffleLocations());
+                ClusterMessage.TaskCompletion completion = await(pipelined);
+                if (completion.failure() == null) {
+                    return completion;
+                }
+                // Early locations may point at a worker that died since, retry with the final ones.
+            }
+            reduceTask.fetchFrom(assignment.shuffleLocations());
+        }
+        return execute(task, shuffleServer);
+    }
+
+    private static ClusterMessage.TaskCompletion execute(Task task, ShuffleServer shuffleServer) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            return new ClusterMessage.TaskCompletion(null, null, transferable(e));
+        }
+        List<ShuffleLocation> outputLocations = task instanceof ReduceTask<?, ?, ?, ?>
+            ? List.of()
+            : task.getOutputFiles().stream().map(shuffleServer::locate).toList();
+        return new ClusterMessage.TaskCompletion(task.getMetrics(), outputLocations, null);
+    }
+
+    private static ClusterMessage.TaskCompletion await(Future<ClusterMessage.TaskCompletion> pipelined) {
+        try {
+            return pipelined.get();
+        } catch (ExecutionException e) {
+            return new ClusterMessage.TaskCompletion(null, null, transferable(new RuntimeException(e.getCause())));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ClusterMessage.TaskCompletion(null, null, transferable(new RuntimeException(e)));
+        }
+    }
+
+    private static RuntimeException transferable(RuntimeException failure) {
+        try (ObjectOutputStream probe = new ObjectOutputStream(OutputStream.nullOutputStream())) {
+            probe.writeObject(failure);
+            return failure;
+        } catch (IOException e) {
+            return new RuntimeException(failure.toString());
+        }
+    }
+}
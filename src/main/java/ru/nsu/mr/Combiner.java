@@ -0,0 +1,4 @@
+package ru.nsu.mr;
+
+public interface Combiner<KEY, VALUE> extends Reducer<KEY, VALUE, KEY, VALUE> {
+}
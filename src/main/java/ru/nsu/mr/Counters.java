@@ -0,0 +1,41 @@
+package ru.nsu.mr;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class Counters implements Serializable {
+    private final Map<String, Long> values = new TreeMap<>();
+
+    public void increment(String name, long amount) {
+        values.merge(name, amount, Long::sum);
+    }
+
+    public void increment(TaskCounter counter, long amount) {
+        increment(counter.name(), amount);
+    }
+
+    public long get(String name) {
+        return values.getOrDefault(name, 0L);
+    }
+
+    public long get(TaskCounter counter) {
+        return get(counter.name());
+    }
+
+    public void addAll(Counters other) {
+        for (Map.Entry<String, Long> entry : other.values.entrySet()) {
+            increment(entry.getKey(), entry.getValue());
+        }
+    }
+
+    public Map<String, Long> asMap() {
+        return Collections.unmodifiableMap(values);
+    }
+
+    @Override
+    public String toString() {
+        return values.toString();
+    }
+}
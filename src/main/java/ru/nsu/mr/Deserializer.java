@@ -1,5 +1,7 @@
 package ru.nsu.mr;
 
-public interface Deserializer<T> {
+import java.io.Serializable;
+
+public interface Deserializer<T> extends Serializable {
     T deserialize(String input);
 }
@@ -0,0 +1,88 @@
+package ru.nsu.mr;
+
+import ru.nsu.mr.config.Configuration;
+import ru.nsu.mr.config.ConfigurationOption;
+
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+final class Fingerprints {
+    private static final int HASH_BUFFER_SIZE = 1 << 16;
+
+    private Fingerprints() {
+    }
+
+    static String job(
+        MapReduceJob<?, ?, ?, ?> job,
+        Partitioner<?> partitioner,
+        int saltSlotsCount,
+        Configuration configuration
+    ) {
+        MessageDigest digest = sha256();
+        try (ObjectOutputStream output = new ObjectOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), digest))) {
+            output.writeObject(job);
+            output.writeObject(partitioner);
+            output.writeInt(configuration.get(ConfigurationOption.REDUCERS_COUNT));
+            output.writeInt(saltSlotsCount);
+            output.writeDouble(configuration.get(ConfigurationOption.SKEW_HOT_KEY_FRACTION));
+            output.writeUTF(configuration.get(ConfigurationOption.INTERMEDIATE_COMPRESSION_CODEC));
+        } catch (NotSerializableException e) {
+            throw new IllegalArgumentException("Job fingerprint needs a serializable job: " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    static String inputs(String prefix, List<InputSplit> inputSplits, boolean contentHash) throws IOException {
+        MessageDigest digest = sha256();
+        digest.update(prefix.getBytes(StandardCharsets.UTF_8));
+        Map<Path, String> fileIdentities = new HashMap<>();
+        for (InputSplit split : inputSplits) {
+            Path path = split.path().toAbsolutePath().normalize();
+            if (!fileIdentities.containsKey(path)) {
+                fileIdentities.put(path, fileIdentity(path, contentHash));
+            }
+            digest.update((path + "\0" + fileIdentities.get(path) + "\0" + split.start() + "\0" + split.length() + "\n")
+                .getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String fileIdentity(Path path, boolean contentHash) throws IOException {
+        if (!contentHash) {
+            return Files.size(path) + ":" + Files.getLastModifiedTime(path).toMillis();
+        }
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocate(HASH_BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (channel.read(buffer.clear()) >= 0) {
+                digest.update(buffer.flip());
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package ru.nsu.mr;
+
+public class HashPartitioner<K> implements Partitioner<K> {
+    private final KeyHasher<K> hasher;
+
+    public HashPartitioner(KeyHasher<K> hasher) {
+        this.hasher = hasher;
+    }
+
+    @Override
+    public int getPartition(K key, int partitionsCount) {
+        int hash = hasher.hash(key);
+        return (hash % partitionsCount + partitionsCount) % partitionsCount;
+    }
+}
@@ -0,0 +1,48 @@
+package ru.nsu.mr;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+public class HeavyHitterSketch<K> {
+    private final int capacity;
+    private final Map<K, long[]> counters;
+    private long totalCount;
+
+    public HeavyHitterSketch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Sketch capacity must be positive.");
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(2 * capacity);
+    }
+
+    public long add(K key) {
+        ++totalCount;
+        long[] counter = counters.get(key);
+        if (counter != null) {
+            return ++counter[0];
+        }
+        if (counters.size() < capacity) {
+            counters.put(key, new long[] {1});
+            return 1;
+        }
+
+        Iterator<long[]> iterator = counters.values().iterator();
+        while (iterator.hasNext()) {
+            if (--iterator.next()[0] == 0) {
+                iterator.remove();
+            }
+        }
+        return 0;
+    }
+
+    public long estimate(K key) {
+        long[] counter = counters.get(key);
+        return counter == null ? 0 : counter[0];
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+}
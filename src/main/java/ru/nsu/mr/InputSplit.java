@@ -0,0 +1,6 @@
+package ru.nsu.mr;
+
+import java.nio.file.Path;
+
+public record InputSplit(Path path, long start, long length) {
+}
@@ -0,0 +1,26 @@
+package ru.nsu.mr;
+
+import java.util.Iterator;
+
+public interface IntMapper<KEY_IN, VALUE_IN, KEY_OUT> extends Mapper<KEY_IN, VALUE_IN, KEY_OUT, Integer> {
+    void mapInts(Iterator<Pair<KEY_IN, VALUE_IN>> input, IntOutputContext<KEY_OUT> output);
+
+    @Override
+    default void map(Iterator<Pair<KEY_IN, VALUE_IN>> input, OutputContext<KEY_OUT, Integer> output) {
+        if (output instanceof IntOutputContext<KEY_OUT> intOutput) {
+            mapInts(input, intOutput);
+        } else {
+            mapInts(input, new IntOutputContext<>() {
+                @Override
+                public void putInt(KEY_OUT key, int value) {
+                    output.put(key, value);
+                }
+
+                @Override
+                public void increment(String counter, long amount) {
+                    output.increment(counter, amount);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package ru.nsu.mr;
+
+public interface IntOutputContext<K> extends OutputContext<K, Integer> {
+    void putInt(K key, int value);
+
+    @Override
+    default void put(K key, Integer value) {
+        putInt(key, value);
+    }
+}
@@ -0,0 +1,27 @@
+package ru.nsu.mr;
+
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+
+public interface IntReducer<KEY_IN, KEY_OUT, VALUE_OUT> extends Reducer<KEY_IN, Integer, KEY_OUT, VALUE_OUT> {
+    void reduceInts(KEY_IN key, PrimitiveIterator.OfInt values, OutputContext<KEY_OUT, VALUE_OUT> output);
+
+    @Override
+    default void reduce(KEY_IN key, Iterator<Integer> values, OutputContext<KEY_OUT, VALUE_OUT> output) {
+        if (values instanceof PrimitiveIterator.OfInt intValues) {
+            reduceInts(key, intValues, output);
+            return;
+        }
+        reduceInts(key, new PrimitiveIterator.OfInt() {
+            @Override
+            public int nextInt() {
+                return values.next();
+            }
+
+            @Override
+            public boolean hasNext() {
+                return values.hasNext();
+            }
+        }, output);
+    }
+}
@@ -0,0 +1,66 @@
+package ru.nsu.mr;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class JobManifest {
+    public static final String FILE_NAME = "job-manifest.txt";
+
+    private final Path file;
+    private final Set<String> committedTasks = ConcurrentHashMap.newKeySet();
+
+    private JobManifest(Path file) {
+        this.file = file;
+    }
+
+    public static JobManifest open(Path directory, String fingerprint) throws IOException {
+        JobManifest manifest = new JobManifest(directory.resolve(FILE_NAME));
+        if (Files.exists(manifest.file)) {
+            List<String> lines = Files.readAllLines(manifest.file, StandardCharsets.UTF_8);
+            if (!lines.isEmpty() && lines.getFirst().equals(fingerprint)) {
+                manifest.committedTasks.addAll(lines.subList(1, lines.size()));
+                return manifest;
+            }
+        }
+
+        Path tempFile = Files.createTempFile(directory, "." + FILE_NAME, ".tmp");
+        try {
+            Files.writeString(tempFile, fingerprint + "\n", StandardCharsets.UTF_8);
+            Files.move(tempFile, manifest.file, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        return manifest;
+    }
+
+    public boolean isCommitted(Task task) {
+        if (!committedTasks.contains(task.toString())) {
+            return false;
+        }
+        for (Path outputFile : task.getOutputFiles()) {
+            if (!Files.exists(outputFile)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void commit(Task task) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer line = ByteBuffer.wrap((task + "\n").getBytes(StandardCharsets.UTF_8));
+            while (line.hasRemaining()) {
+                channel.write(line);
+            }
+        }
+        committedTasks.add(task.toString());
+    }
+}
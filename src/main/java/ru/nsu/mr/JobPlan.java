@@ -0,0 +1,181 @@
+package ru.nsu.mr;
+
+import ru.nsu.mr.config.Configuration;
+import ru.nsu.mr.config.ConfigurationOption;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class JobPlan<KEY_INTER, VALUE_INTER, KEY_OUT, VALUE_OUT> {
+    private final List<MapTask<KEY_INTER, VALUE_INTER>> mapTasks = new ArrayList<>();
+    private final List<SaltCombineTask<KEY_INTER, VALUE_INTER>> saltCombineTasks = new ArrayList<>();
+    private final List<ReduceTask<KEY_INTER, VALUE_INTER, KEY_OUT, VALUE_OUT>> reduceTasks = new ArrayList<>();
+    private final Partitioner<KEY_INTER> partitioner;
+
+    public JobPlan(
+        MapReduceJob<KEY_INTER, VALUE_INTER, KEY_OUT, VALUE_OUT> job,
+        List<Path> inputFiles,
+        Configuration configuration,
+        Path mappersOutputDirectory,
+        Path outputDirectory
+    ) {
+        this(job, null, inputFiles, configuration, mappersOutputDirectory, outputDirectory);
+    }
+
+    JobPlan(
+        MapReduceJob<KEY_INTER, VALUE_INTER, KEY_OUT, VALUE_OUT> job,
+        Partitioner<KEY_INTER> preparedPartitioner,
+        List<Path> inputFiles,
+        Configuration configuration,
+        Path mappersOutputDirectory,
+        Path outputDirectory
+    ) {
+        int mappersCount = configuration.get(ConfigurationOption.MAPPERS_COUNT);
+        int reducersCount = configuration.get(ConfigurationOption.REDUCERS_COUNT);
+
+        List<InputSplit> inputSplits = createSplits(
+            inputFiles, configuration.get(ConfigurationOption.INPUT_SPLIT_SIZE), mappersCount);
+        partitioner = preparedPartitioner != null
+            ? preparedPartitioner
+            : job.getPartitioner().prepare(job, inputSplits, reducersCount);
+        AssociativeReducer<KEY_INTER, VALUE_INTER> associativeReducer = associativeReducer(job);
+        int saltSlotsCount = associativeReducer == null ? 0 : configuration.get(ConfigurationOption.SKEW_SALT_SLOTS);
+
+        MapOutputCache cache = MapOutputCache.forJob(job, partitioner, saltSlotsCount, configuration);
+
+        int numberOfProcessedSplits = 0;
+        for (int i = 0; i < mappersCount; ++i) {
+            int splitsToProcessCount = (inputSplits.size() - numberOfProcessedSplits) / (mappersCount - i);
+            List<InputSplit> splitsToProcess = new ArrayList<>(inputSplits.subList(
+                numberOfProcessedSplits, numberOfProcessedSplits + splitsToProcessCount));
+            numberOfProcessedSplits += splitsToProcessCount;
+
+            List<Path> outputFiles = new ArrayList<>(reducersCount);
+            for (int j = 0; j < reducersCount; ++j) {
+                outputFiles.add(mapperOutputFile(mappersOutputDirectory, i, j));
+            }
+            List<Path> saltFiles = new ArrayList<>(saltSlotsCount);
+            for (int s = 0; s < saltSlotsCount; ++s) {
+                saltFiles.add(mappersOutputDirectory.resolve("mapper-salt-" + i + "-" + s + ".bin"));
+            }
+            mapTasks.add(new MapTask<>(
+                job, i, splitsToProcess, outputFiles, saltFiles, partitioner, configuration, cache));
+        }
+
+        for (int s = 0; s < saltSlotsCount; ++s) {
+            List<Path> saltFiles = new ArrayList<>(mappersCount);
+            for (int k = 0; k < mappersCount; ++k) {
+                saltFiles.add(mappersOutputDirectory.resolve("mapper-salt-" + k + "-" + s + ".bin"));
+            }
+            List<Path> partialFiles = new ArrayList<>(reducersCount);
+            for (int j = 0; j < reducersCount; ++j) {
+                partialFiles.add(saltPartialFile(mappersOutputDirectory, s, j));
+            }
+            saltCombineTasks.add(new SaltCombineTask<>(
+                job, associativeReducer, s, saltFiles, partialFiles, partitioner, configuration));
+        }
+
+        for (int i = 0; i < reducersCount; ++i) {
+            List<Path> interFilesToReduce = new ArrayList<>(mappersCount);
+            for (int k = 0; k < mappersCount; ++k) {
+                interFilesToReduce.add(mapperOutputFile(mappersOutputDirectory, k, i));
+            }
+            for (int s = 0; s < saltSlotsCount; ++s) {
+                interFilesToReduce.add(saltPartialFile(mappersOutputDirectory, s, i));
+            }
+            reduceTasks.add(new ReduceTask<>(
+                job, i, interFilesToReduce, outputDirectory.resolve("output-" + i + ".txt"), configuration));
+        }
+
+        JobManifest manifest = configuration.get(ConfigurationOption.JOB_RESUME)
+            ? openManifest(job, inputSplits, saltSlotsCount, configuration, mappersOutputDirectory, outputDirectory)
+            : null;
+        int maxAttempts = configuration.get(ConfigurationOption.TASK_MAX_ATTEMPTS);
+        for (Task task : getAllTasks()) {
+            task.setMaxAttempts(maxAttempts).setManifest(manifest);
+        }
+    }
+
+    private JobManifest openManifest(
+        MapReduceJob<KEY_INTER, VALUE_INTER, KEY_OUT, VALUE_OUT> job,
+        List<InputSplit> inputSplits,
+        int saltSlotsCount,
+        Configuration configuration,
+        Path mappersOutputDirectory,
+        Path outputDirectory
+    ) {
+        String jobFingerprint = Fingerprints.job(job, partitioner, saltSlotsCount, configuration)
+            + ":" + configuration.get(ConfigurationOption.MAPPERS_COUNT)
+            + ":" + outputDirectory.toAbsolutePath();
+        try {
+            return JobManifest.open(mappersOutputDirectory, Fingerprints.inputs(jobFingerprint, inputSplits, false));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private List<Task> getAllTasks() {
+        List<Task> tasks = new ArrayList<>(mapTasks);
+        tasks.addAll(saltCombineTasks);
+        tasks.addAll(reduceTasks);
+        return tasks;
+    }
+
+    private static List<InputSplit> createSplits(List<Path> inputFiles, long targetSplitSize, int mappersCount) {
+        List<Long> sizes = new ArrayList<>(inputFiles.size());
+        long totalSize = 0;
+        for (Path inputFile : inputFiles) {
+            try {
+                sizes.add(Files.size(inputFile));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            totalSize += sizes.getLast();
+        }
+
+        long splitSize = Math.max(1, Math.min(targetSplitSize, (totalSize + mappersCount - 1) / mappersCount));
+        List<InputSplit> splits = new ArrayList<>();
+        for (int i = 0; i < inputFiles.size(); ++i) {
+            long fileSize = sizes.get(i);
+            for (long start = 0; start < fileSize; start += splitSize) {
+                splits.add(new InputSplit(inputFiles.get(i), start, Math.min(splitSize, fileSize - start)));
+            }
+        }
+        return splits;
+    }
+
+    private static Path mapperOutputFile(Path mappersOutputDirectory, int mapperId, int reducerId) {
+        return mappersOutputDirectory.resolve("mapper-output-" + mapperId + "-" + reducerId + ".bin");
+    }
+
+    private static Path saltPartialFile(Path mappersOutputDirectory, int saltSlot, int reducerId) {
+        return mappersOutputDirectory.resolve("salt-partial-" + saltSlot + "-" + reducerId + ".bin");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> AssociativeReducer<K, V> associativeReducer(MapReduceJob<K, V, ?, ?> job) {
+        if (job.getReducer() instanceof AssociativeReducer<?, ?> reducer) {
+            return (AssociativeReducer<K, V>) reducer;
+        }
+        return null;
+    }
+
+    public Partitioner<KEY_INTER> getPartitioner() {
+        return partitioner;
+    }
+
+    public List<MapTask<KEY_INTER, VALUE_INTER>> getMapTasks() {
+        return mapTasks;
+    }
+
+    public List<SaltCombineTask<KEY_INTER, VALUE_INTER>> getSaltCombineTasks() {
+        return saltCombineTasks;
+    }
+
+    public List<ReduceTask<KEY_INTER, VALUE_INTER, KEY_OUT, VALUE_OUT>> getReduceTasks() {
+        return reduceTasks;
+    }
+}
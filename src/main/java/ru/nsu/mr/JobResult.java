@@ -0,0 +1,70 @@
+package ru.nsu.mr;
+
+import java.util.Comparator;
+import java.util.List;
+
+public class JobResult {
+    private final List<TaskMetrics> mapTasks;
+    private final List<TaskMetrics> saltCombineTasks;
+    private final List<TaskMetrics> reduceTasks;
+    private final long elapsedNanos;
+    private final Counters counters = new Counters();
+
+    public JobResult(
+        List<TaskMetrics> mapTasks,
+        List<TaskMetrics> saltCombineTasks,
+        List<TaskMetrics> reduceTasks,
+        long elapsedNanos
+    ) {
+        this.mapTasks = List.copyOf(mapTasks);
+        this.saltCombineTasks = List.copyOf(saltCombineTasks);
+        this.reduceTasks = List.copyOf(reduceTasks);
+        this.elapsedNanos = elapsedNanos;
+        for (List<TaskMetrics> phase : List.of(mapTasks, saltCombineTasks, reduceTasks)) {
+            for (TaskMetrics task : phase) {
+                counters.addAll(task.counters());
+            }
+        }
+    }
+
+    public static JobResult of(JobPlan<?, ?, ?, ?> plan, long elapsedNanos) {
+        return new JobResult(
+            plan.getMapTasks().stream().map(Task::getMetrics).toList(),
+            plan.getSaltCombineTasks().stream().map(Task::getMetrics).toList(),
+            plan.getReduceTasks().stream().map(Task::getMetrics).toList(),
+            elapsedNanos
+        );
+    }
+
+    public List<TaskMetrics> getMapTasks() {
+        return mapTasks;
+    }
+
+    public List<TaskMetrics> getSaltCombineTasks() {
+        return saltCombineTasks;
+    }
+
+    public List<TaskMetrics> getReduceTasks() {
+        return reduceTasks;
+    }
+
+    public Counters getCounters() {
+        return counters;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public TaskMetrics getSlowestMapTask() {
+        return slowest(mapTasks);
+    }
+
+    public TaskMetrics getSlowestReduceTask() {
+        return slowest(reduceTasks);
+    }
+
+    private static TaskMetrics slowest(List<TaskMetrics> tasks) {
+        return tasks.stream().max(Comparator.comparingLong(TaskMetrics::elapsedNanos)).orElse(null);
+    }
+}
@@ -1,5 +1,7 @@
 package ru.nsu.mr;
 
-public interface KeyHasher<T> {
+import java.io.Serializable;
+
+public interface KeyHasher<T> extends Serializable {
     int hash(T key);
 }
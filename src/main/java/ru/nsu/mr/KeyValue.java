@@ -0,0 +1,7 @@
+package ru.nsu.mr;
+
+public interface KeyValue<K, V> {
+    K key();
+
+    V value();
+}
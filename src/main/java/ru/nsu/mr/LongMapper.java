@@ -0,0 +1,26 @@
+package ru.nsu.mr;
+
+import java.util.Iterator;
+
+public interface LongMapper<KEY_IN, VALUE_IN, KEY_OUT> extends Mapper<KEY_IN, VALUE_IN, KEY_OUT, Long> {
+    void mapLongs(Iterator<Pair<KEY_IN, VALUE_IN>> input, LongOutputContext<KEY_OUT> output);
+
+    @Override
+    default void map(Iterator<Pair<KEY_IN, VALUE_IN>> input, OutputContext<KEY_OUT, Long> output) {
+        if (output instanceof LongOutputContext<KEY_OUT> longOutput) {
+            mapLongs(input, longOutput);
+        } else {
+            mapLongs(input, new LongOutputContext<>() {
+                @Override
+                public void putLong(KEY_OUT key, long value) {
+                    output.put(key, value);
+                }
+
+                @Override
+                public void increment(String counter, long amount) {
+                    output.increment(counter, amount);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package ru.nsu.mr;
+
+public interface LongOutputContext<K> extends OutputContext<K, Long> {
+    void putLong(K key, long value);
+
+    @Override
+    default void put(K key, Long value) {
+        putLong(key, value);
+    }
+}
@@ -0,0 +1,27 @@
+package ru.nsu.mr;
+
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+
+public interface LongReducer<KEY_IN, KEY_OUT, VALUE_OUT> extends Reducer<KEY_IN, Long, KEY_OUT, VALUE_OUT> {
+    void reduceLongs(KEY_IN key, PrimitiveIterator.OfLong values, OutputContext<KEY_OUT, VALUE_OUT> output);
+
+    @Override
+    default void reduce(KEY_IN key, Iterator<Long> values, OutputContext<KEY_OUT, VALUE_OUT> output) {
+        if (values instanceof PrimitiveIterator.OfLong longValues) {
+            reduceLongs(key, longValues, output);
+            return;
+        }
+        reduceLongs(key, new PrimitiveIterator.OfLong() {
+            @Override
+            public long nextLong() {
+                return values.next();
+            }
+
+            @Override
+            public boolean hasNext() {
+                return values.hasNext();
+            }
+        }, output);
+    }
+}
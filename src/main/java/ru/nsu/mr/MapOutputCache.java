@@ -0,0 +1,180 @@
+package ru.nsu.mr;
+
+import ru.nsu.mr.config.Configuration;
+import ru.nsu.mr.config.ConfigurationOption;
+
+import java.io.*;
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Stream;
+
+public class MapOutputCache {
+    private static final String COUNTERS_FILE = "counters.bin";
+    private static final String TEMP_PREFIX = ".tmp-";
+
+    private final Path directory;
+    private final long maxBytes;
+    private final boolean contentHash;
+    private final String jobFingerprint;
+
+    public MapOutputCache(Path directory, long maxBytes, boolean contentHash, String jobFingerprint) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        this.contentHash = contentHash;
+        this.jobFingerprint = jobFingerprint;
+    }
+
+    public static MapOutputCache forJob(
+        MapReduceJob<?, ?, ?, ?> job,
+        Partitioner<?> partitioner,
+        int saltSlotsCount,
+        Configuration configuration
+    ) {
+        String cacheDirectory = configuration.get(ConfigurationOption.MAP_OUTPUT_CACHE_DIRECTORY);
+        if (cacheDirectory.isEmpty()) {
+            return null;
+        }
+
+        return new MapOutputCache(
+            Path.of(cacheDirectory),
+            configuration.get(ConfigurationOption.MAP_OUTPUT_CACHE_MAX_BYTES),
+            configuration.get(ConfigurationOption.MAP_OUTPUT_CACHE_CONTENT_HASH),
+            Fingerprints.job(job, partitioner, saltSlotsCount, configuration)
+        );
+    }
+
+    public String keyFor(List<InputSplit> inputSplits) throws IOException {
+        return Fingerprints.inputs(jobFingerprint, inputSplits, contentHash);
+    }
+
+    public boolean restore(String key, List<Path> outputFiles, Counters counters) {
+        Path entry = directory.resolve(key);
+        try {
+            if (!Files.isDirectory(entry)) {
+                return false;
+            }
+            Counters cachedCounters;
+            try (ObjectInputStream input = new ObjectInputStream(
+                    new BufferedInputStream(Files.newInputStream(entry.resolve(COUNTERS_FILE))))) {
+                cachedCounters = (Counters) input.readObject();
+            }
+            for (int i = 0; i < outputFiles.size(); ++i) {
+                Files.copy(entry.resolve(partName(i)), outputFiles.get(i), StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.setLastModifiedTime(entry, FileTime.from(Instant.now()));
+            for (Map.Entry<String, Long> counter : cachedCounters.asMap().entrySet()) {
+                if (!counter.getKey().endsWith("_TIME_NANOS")) {
+                    counters.increment(counter.getKey(), counter.getValue());
+                }
+            }
+            return true;
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            return false;
+        }
+    }
+
+    public void store(String key, List<Path> outputFiles, Counters counters) {
+        try {
+            Files.createDirectories(directory);
+            Path entry = directory.resolve(key);
+            if (Files.isDirectory(entry)) {
+                return;
+            }
+
+            Path tempEntry = Files.createTempDirectory(directory, TEMP_PREFIX);
+            try {
+                for (int i = 0; i < outputFiles.size(); ++i) {
+                    linkOrCopy(outputFiles.get(i), tempEntry.resolve(partName(i)));
+                }
+                try (ObjectOutputStream output = new ObjectOutputStream(
+                        new BufferedOutputStream(Files.newOutputStream(tempEntry.resolve(COUNTERS_FILE))))) {
+                    output.writeObject(counters);
+                }
+                Files.move(tempEntry, entry, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+                // Another task stored the same entry first.
+            } finally {
+                deleteRecursively(tempEntry);
+            }
+            evict();
+        } catch (IOException e) {
+            // The cache is an optimization, the task output is already complete without it.
+        }
+    }
+
+    private synchronized void evict() throws IOException {
+        List<Path> entries;
+        try (Stream<Path> files = Files.list(directory)) {
+            entries = files.filter(path -> !path.getFileName().toString().startsWith(TEMP_PREFIX)).toList();
+        }
+        Map<Path, Long> sizes = new HashMap<>();
+        Map<Path, FileTime> accessTimes = new HashMap<>();
+        long totalSize = 0;
+        for (Path entry : entries) {
+            try {
+                sizes.put(entry, sizeOf(entry));
+                accessTimes.put(entry, Files.getLastModifiedTime(entry));
+                totalSize += sizes.get(entry);
+            } catch (NoSuchFileException e) {
+                // Evicted concurrently.
+            }
+        }
+
+        List<Path> leastRecentlyUsed = new ArrayList<>(sizes.keySet());
+        leastRecentlyUsed.sort(Comparator.comparing(accessTimes::get));
+        for (Path entry : leastRecentlyUsed) {
+            if (totalSize <= maxBytes) {
+                break;
+            }
+            try {
+                deleteRecursively(entry);
+            } catch (NoSuchFileException e) {
+                // Evicted concurrently.
+            }
+            totalSize -= sizes.get(entry);
+        }
+    }
+
+    private static void linkOrCopy(Path source, Path target) throws IOException {
+        // Committed outputs are replaced by moves and never rewritten in place, so the cache can share them.
+        try {
+            Files.createLink(target, source);
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            // Hard links do not cross filesystems.
+            Files.copy(source, target);
+        }
+    }
+
+    private static long sizeOf(Path entry) throws IOException {
+        long size = 0;
+        try (Stream<Path> files = Files.list(entry)) {
+            for (Path file : files.toList()) {
+                size += Files.size(file);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return size;
+    }
+
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(path)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        } catch (UncheckedIOException e) {
+            // Files.walk reports entries removed by a concurrent eviction this way.
+            throw e.getCause();
+        }
+    }
+
+    private static String partName(int index) {
+        return "part-" + index + ".bin";
+    }
+
+}
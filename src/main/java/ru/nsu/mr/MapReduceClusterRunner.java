@@ -0,0 +1,406 @@
+package ru.nsu.mr;
+
+import ru.nsu.mr.config.Configuration;
+import ru.nsu.mr.config.ConfigurationOption;
+import ru.nsu.mr.shuffle.ShuffleLocation;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class MapReduceClusterRunner<KEY_INTER, VALUE_INTER, KEY_OUT, VALUE_OUT>
+    implements MapReduceRunner<KEY_INTER, VALUE_INTER, KEY_OUT, VALUE_OUT>
+{
+    private static final long POLL_INTERVAL_MILLIS = 50;
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+
+    public MapReduceClusterRunner() {
+    }
+
+    @Override
+    public JobResult run(
+        MapReduceJob<KEY_INTER, VALUE_INTER, KEY_OUT, VALUE_OUT> job,
+        List<Path> inputFiles,
+        Configuration configuration,
+        Path mappersOutputDirectory,
+        Path outputDirectory)
+    {
+        long startTime = System.nanoTime();
+        JobPlan<KEY_INTER, VALUE_INTER, KEY_OUT, VALUE_OUT> plan =
+            new JobPlan<>(job, inputFiles, configuration, mappersOutputDirectory, outputDirectory);
+        ClusterMessage.JobSpec jobSpec = new ClusterMessage.JobSpec(
+            job,
+            plan.getPartitioner(),
+            configuration,
+            inputFiles.stream().map(path -> path.toAbsolutePath().toString()).toList(),
+            mappersOutputDirectory.toAbsolutePath().toString(),
+            outputDirectory.toAbsolutePath().toString()
+        );
+
+        List<WorkerConnection> workers = new ArrayList<>();
+        try (ServerSocket serverSocket = new ServerSocket(0, 0, InetAddress.getLoopbackAddress())) {
+            startWorkers(serverSocket, configuration, jobSpec, workers);
+            if (configuration.get(ConfigurationOption.REDUCE_PIPELINED)) {
+                // Hosted reducers start fetching map outputs as soon as they are served.
+                for (int i = 0; i < plan.getReduceTasks().size(); ++i) {
+                    workers.get(i % workers.size()).hostedReduces.put(i, ConcurrentHashMap.newKeySet());
+                }
+            }
+            Map<Path, ShuffleLocation> shuffleLocations = new ConcurrentHashMap<>();
+            AtomicReferenceArray<TaskMetrics> mapTasks = new AtomicReferenceArray<>(plan.getMapTasks().size());
+            AtomicReferenceArray<TaskMetrics> saltCombineTasks =
+                new AtomicReferenceArray<>(plan.getSaltCombineTasks().size());
+            AtomicReferenceArray<TaskMetrics> reduceTasks = new AtomicReferenceArray<>(plan.getReduceTasks().size());
+            // Map outputs are served by the worker that produced them, a dead worker sends its tasks back to the map phase.
+            do {
+                runPhase(workers, ClusterMessage.Phase.MAP, plan, shuffleLocations, mapTasks);
+                runPhase(workers, ClusterMessage.Phase.SALT_COMBINE, plan, shuffleLocations, saltCombineTasks);
+            } while (!runPhase(workers, ClusterMessage.Phase.REDUCE, plan, shuffleLocations, reduceTasks));
+            return new JobResult(toList(mapTasks), toList(saltCombineTasks), toList(reduceTasks),
+                System.nanoTime() - startTime);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            for (WorkerConnection worker : workers) {
+                worker.shutdown();
+            }
+        }
+    }
+
+    private static void startWorkers(
+        ServerSocket serverSocket,
+        Configuration configuration,
+        ClusterMessage.JobSpec jobSpec,
+        List<WorkerConnection> workers
+    ) throws IOException {
+        int workersCount = configuration.get(ConfigurationOption.WORKERS_COUNT);
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        String workerHeap = configuration.get(ConfigurationOption.CLUSTER_WORKER_HEAP);
+        if (!workerHeap.isEmpty()) {
+            command.add("-Xmx" + workerHeap);
+        }
+        command.addAll(List.of(
+            "-cp", System.getProperty("java.class.path"),
+            ClusterWorker.class.getName(),
+            String.valueOf(serverSocket.getLocalPort())
+        ));
+
+        Map<Long, Process> processes = new HashMap<>();
+        try {
+            for (int i = 0; i < workersCount; ++i) {
+                Process process = new ProcessBuilder(command).inheritIO().start();
+                processes.put(process.pid(), process);
+            }
+            serverSocket.setSoTimeout(configuration.get(ConfigurationOption.CLUSTER_WORKER_CONNECT_TIMEOUT_MILLIS));
+            for (int i = 0; i < workersCount; ++i) {
+                workers.add(new WorkerConnection(serverSocket.accept(), processes, jobSpec));
+            }
+        } catch (IOException | RuntimeException e) {
+            for (Process process : processes.values()) {
+                process.destroyForcibly();
+            }
+            throw e;
+        }
+    }
+
+    private static boolean runPhase(
+        List<WorkerConnection> workers,
+        ClusterMessage.Phase phase,
+        JobPlan<?, ?, ?, ?> plan,
+        Map<Path, ShuffleLocation> shuffleLocations,
+        AtomicReferenceArray<TaskMetrics> metrics
+    ) {
+        List<? extends Task> tasks = phase.tasks(plan);
+        BlockingQueue<Integer> pendingTasks = new LinkedBlockingQueue<>();
+        Set<Integer> scheduledTasks = ConcurrentHashMap.newKeySet();
+        AtomicBoolean inputsLost = new AtomicBoolean();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        List<WorkerConnection> liveWorkers = workers.stream().filter(WorkerConnection::isAlive).toList();
+        if (liveWorkers.isEmpty() && !tasks.isEmpty()) {
+            throw new RuntimeException("No live cluster workers left");
+        }
+        AtomicInteger liveWorkersCount = new AtomicInteger(liveWorkers.size());
+        for (WorkerConnection worker : liveWorkers) {
+            worker.handedOverReduces.clear();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, liveWorkers.size()));
+        try {
+            for (WorkerConnection worker : liveWorkers) {
+                executor.execute(() -> {
+                    while (failure.get() == null && !inputsLost.get()) {
+                        Integer index = worker.handedOverReduces.poll();
+                        try {
+                            if (index == null) {
+                                index = pendingTasks.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                            }
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                        if (index == null) {
+                            continue;
+                        }
+                        if (phase == ClusterMessage.Phase.REDUCE && handOverToHost(index, worker, workers)) {
+                            continue;
+                        }
+
+                        Task task = tasks.get(index);
+                        if (!inputsAvailable(task, workers, shuffleLocations)) {
+                            inputsLost.set(true);
+                            scheduledTasks.remove(index);
+                            return;
+                        }
+                        ClusterMessage.TaskCompletion completion;
+                        try {
+                            completion = worker.execute(assignment(phase, index, plan, worker, shuffleLocations));
+                        } catch (IOException e) {
+                            releaseOutputs(worker, shuffleLocations);
+                            scheduledTasks.remove(index);
+                            for (Integer handedOver : worker.drainHandedOverReduces()) {
+                                scheduledTasks.remove(handedOver);
+                            }
+                            if (liveWorkersCount.decrementAndGet() == 0) {
+                                failure.compareAndSet(null, new RuntimeException("All cluster workers died", e));
+                            }
+                            return;
+                        }
+                        if (completion.failure() != null) {
+                            if (!inputsAvailable(task, workers, shuffleLocations)) {
+                                // The fetch failed because a worker serving the inputs died.
+                                inputsLost.set(true);
+                                scheduledTasks.remove(index);
+                                return;
+                            }
+                            failure.compareAndSet(null, completion.failure());
+                            return;
+                        }
+                        List<Path> outputFiles = task.getOutputFiles();
+                        for (int i = 0; i < completion.outputLocations().size(); ++i) {
+                            worker.servedOutputs.put(outputFiles.get(i), completion.outputLocations().get(i));
+                            shuffleLocations.put(outputFiles.get(i), completion.outputLocations().get(i));
+                        }
+                        metrics.set(index, completion.metrics());
+                        scheduledTasks.remove(index);
+                    }
+                });
+            }
+
+            while (true) {
+                if (failure.get() != null) {
+                    throw failure.get();
+                }
+                if (inputsLost.get()) {
+                    // Threads still waiting for a completion own their worker's streams until it arrives.
+                    executor.shutdown();
+                    while (!executor.awaitTermination(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                        if (failure.get() != null) {
+                            throw failure.get();
+                        }
+                    }
+                    return false;
+                }
+                boolean completed = true;
+                for (int i = 0; i < tasks.size(); ++i) {
+                    if (isCompleted(tasks.get(i), metrics.get(i), shuffleLocations)) {
+                        continue;
+                    }
+                    completed = false;
+                    if (scheduledTasks.add(i)) {
+                        // The task may have completed between the check above and claiming it.
+                        if (isCompleted(tasks.get(i), metrics.get(i), shuffleLocations)) {
+                            scheduledTasks.remove(i);
+                            continue;
+                        }
+                        metrics.set(i, null);
+                        pendingTasks.add(i);
+                    }
+                }
+                if (completed) {
+                    return true;
+                }
+                Thread.sleep(POLL_INTERVAL_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static boolean handOverToHost(int index, WorkerConnection worker, List<WorkerConnection> workers) {
+        for (WorkerConnection host : workers) {
+            if (host != worker && host.hostedReduces.containsKey(index)) {
+                return host.handOver(index);
+            }
+        }
+        return false;
+    }
+
+    private static boolean isCompleted(Task task, TaskMetrics metrics, Map<Path, ShuffleLocation> shuffleLocations) {
+        return metrics != null
+            && (task instanceof ReduceTask<?, ?, ?, ?> || shuffleLocations.keySet().containsAll(task.getOutputFiles()));
+    }
+
+    private static boolean inputsAvailable(
+        Task task,
+        List<WorkerConnection> workers,
+        Map<Path, ShuffleLocation> shuffleLocations
+    ) {
+        if (!(task instanceof ReduceTask<?, ?, ?, ?> reduceTask)) {
+            return true;
+        }
+        for (WorkerConnection worker : workers) {
+            if (worker.isAlive() && !worker.process.isAlive()) {
+                releaseOutputs(worker, shuffleLocations);
+            }
+        }
+        return shuffleLocations.keySet().containsAll(reduceTask.getInputFiles());
+    }
+
+    private static void releaseOutputs(WorkerConnection worker, Map<Path, ShuffleLocation> shuffleLocations) {
+        worker.shutdown();
+        for (Map.Entry<Path, ShuffleLocation> output : worker.servedOutputs.entrySet()) {
+            shuffleLocations.remove(output.getKey(), output.getValue());
+        }
+    }
+
+    private static List<TaskMetrics> toList(AtomicReferenceArray<TaskMetrics> metrics) {
+        List<TaskMetrics> list = new ArrayList<>(metrics.length());
+        for (int i = 0; i < metrics.length(); ++i) {
+            list.add(metrics.get(i));
+        }
+        return list;
+    }
+
+    private static ClusterMessage.TaskAssignment assignment(
+        ClusterMessage.Phase phase,
+        int index,
+        JobPlan<?, ?, ?, ?> plan,
+        WorkerConnection worker,
+        Map<Path, ShuffleLocation> shuffleLocations
+    ) {
+        if (phase != ClusterMessage.Phase.REDUCE) {
+            return new ClusterMessage.TaskAssignment(
+                phase, index, null, worker.takePipelinedLocations(plan, shuffleLocations));
+        }
+        worker.hostedReduces.remove(index);
+        List<ShuffleLocation> inputLocations = new ArrayList<>();
+        for (Path inputFile : plan.getReduceTasks().get(index).getInputFiles()) {
+            inputLocations.add(shuffleLocations.get(inputFile));
+        }
+        return new ClusterMessage.TaskAssignment(
+            phase, index, inputLocations, worker.takePipelinedLocations(plan, shuffleLocations));
+    }
+
+    private static class WorkerConnection {
+        private final Process process;
+        private final Socket socket;
+        private final ObjectOutputStream output;
+        private final ObjectInputStream input;
+        private final Map<Path, ShuffleLocation> servedOutputs = new ConcurrentHashMap<>();
+        private final Map<Integer, Set<Path>> hostedReduces = new ConcurrentHashMap<>();
+        private final Queue<Integer> handedOverReduces = new ConcurrentLinkedQueue<>();
+        private final Object exchangeLock = new Object();
+        private volatile boolean alive = true;
+
+        WorkerConnection(Socket socket, Map<Long, Process> processes, ClusterMessage.JobSpec jobSpec) throws IOException {
+            this.socket = socket;
+            this.output = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            output.flush();
+            this.input = new ObjectInputStream(new BufferedInputStream(socket.getInputStream()));
+            try {
+                long pid = ((ClusterMessage.WorkerHello) input.readObject()).pid();
+                this.process = processes.get(pid);
+                if (process == null) {
+                    throw new IOException("Unexpected worker process " + pid);
+                }
+            } catch (ClassNotFoundException | ClassCastException e) {
+                throw new IOException(e);
+            }
+            send(jobSpec);
+        }
+
+        boolean isAlive() {
+            return alive;
+        }
+
+        ClusterMessage.TaskCompletion execute(ClusterMessage.TaskAssignment assignment) throws IOException {
+            // Exclusive per worker, a completion must be read by the thread that sent the assignment.
+            synchronized (exchangeLock) {
+                send(assignment);
+                try {
+                    return (ClusterMessage.TaskCompletion) input.readObject();
+                } catch (ClassNotFoundException e) {
+                    throw new IOException(e);
+                }
+            }
+        }
+
+        Map<Integer, List<ShuffleLocation>> takePipelinedLocations(
+            JobPlan<?, ?, ?, ?> plan,
+            Map<Path, ShuffleLocation> shuffleLocations
+        ) {
+            Map<Integer, List<ShuffleLocation>> pipelinedLocations = new HashMap<>();
+            for (Map.Entry<Integer, Set<Path>> reduce : hostedReduces.entrySet()) {
+                List<ShuffleLocation> locations = new ArrayList<>();
+                for (Path inputFile : plan.getReduceTasks().get(reduce.getKey()).getInputFiles()) {
+                    ShuffleLocation location = shuffleLocations.get(inputFile);
+                    if (location != null && reduce.getValue().add(inputFile)) {
+                        locations.add(location);
+                    }
+                }
+                pipelinedLocations.put(reduce.getKey(), locations);
+            }
+            return pipelinedLocations;
+        }
+
+        synchronized boolean handOver(int index) {
+            if (!alive) {
+                return false;
+            }
+            handedOverReduces.add(index);
+            return true;
+        }
+
+        synchronized List<Integer> drainHandedOverReduces() {
+            List<Integer> indices = new ArrayList<>(handedOverReduces);
+            handedOverReduces.clear();
+            return indices;
+        }
+
+        private void send(ClusterMessage message) throws IOException {
+            output.writeObject(message);
+            output.reset();
+            output.flush();
+        }
+
+        synchronized void shutdown() {
+            if (alive) {
+                alive = false;
+                try {
+                    send(new ClusterMessage.Shutdown());
+                    process.waitFor(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (IOException e) {
+                    // The worker is already gone.
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+            process.destroyForcibly();
+        }
+    }
+}
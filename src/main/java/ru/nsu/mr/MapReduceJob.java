@@ -1,8 +1,9 @@
 package ru.nsu.mr;
 
+import java.io.Serializable;
 import java.util.Comparator;
 
-public class MapReduceJob<K1, V1, K2, V2> {
+public class MapReduceJob<K1, V1, K2, V2> implements Serializable {
     private final Mapper<String, String, K1, V1> mapper;
     private final Reducer<K1, V1, K2, V2> reducer;
     private final Serializer<K1> serializerInterKey;
@@ -13,6 +14,14 @@ public class MapReduceJob<K1, V1, K2, V2> {
     private final Serializer<V2> serializerOutValue;
     private final Comparator<K1> comparator;
     private final KeyHasher<K1> hasher;
+    private Combiner<K1, V1> combiner;
+    private RawComparator<K1> rawComparator;
+    private Partitioner<K1> partitioner;
+    private SizeEstimator<K1, V1> sizeEstimator;
+    private BinarySerializer<K1> binarySerializerInterKey;
+    private BinarySerializer<V1> binarySerializerInterValue;
+    private BinaryDeserializer<K1> binaryDeserializerInterKey;
+    private BinaryDeserializer<V1> binaryDeserializerInterValue;
 
     public MapReduceJob(
         Mapper<String, String, K1, V1> mapper,
@@ -35,6 +44,23 @@ public class MapReduceJob<K1, V1, K2, V2> {
         this.serializerOutValue = serializerOutValue;
         this.comparator = comparator;
         this.hasher = hasher;
+        this.partitioner = new HashPartitioner<>(hasher);
+        this.binarySerializerInterKey = BinarySerializer.of(serializerInterKey);
+        this.binarySerializerInterValue = BinarySerializer.of(serializerInterValue);
+        this.binaryDeserializerInterKey = BinaryDeserializer.of(deserializerInterKey);
+        this.binaryDeserializerInterValue = BinaryDeserializer.of(deserializerInterValue);
+        useFixedWidthValues();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void useFixedWidthValues() {
+        if (mapper instanceof IntMapper) {
+            binarySerializerInterValue = (BinarySerializer<V1>) PredefinedFunctions.INTEGER_BINARY_SERIALIZER;
+            binaryDeserializerInterValue = (BinaryDeserializer<V1>) PredefinedFunctions.INTEGER_BINARY_DESERIALIZER;
+        } else if (mapper instanceof LongMapper) {
+            binarySerializerInterValue = (BinarySerializer<V1>) PredefinedFunctions.LONG_BINARY_SERIALIZER;
+            binaryDeserializerInterValue = (BinaryDeserializer<V1>) PredefinedFunctions.LONG_BINARY_DESERIALIZER;
+        }
     }
 
     public Mapper<String, String, K1, V1> getMapper() {
@@ -76,4 +102,77 @@ public class MapReduceJob<K1, V1, K2, V2> {
     public KeyHasher<K1> getHasher() {
         return hasher;
     }
+
+    public BinarySerializer<K1> getBinarySerializerInterKey() {
+        return binarySerializerInterKey;
+    }
+
+    public BinarySerializer<V1> getBinarySerializerInterValue() {
+        return binarySerializerInterValue;
+    }
+
+    public BinaryDeserializer<K1> getBinaryDeserializerInterKey() {
+        return binaryDeserializerInterKey;
+    }
+
+    public BinaryDeserializer<V1> getBinaryDeserializerInterValue() {
+        return binaryDeserializerInterValue;
+    }
+
+    public MapReduceJob<K1, V1, K2, V2> setBinaryInterSerializers(
+        BinarySerializer<K1> keySerializer,
+        BinarySerializer<V1> valueSerializer,
+        BinaryDeserializer<K1> keyDeserializer,
+        BinaryDeserializer<V1> valueDeserializer
+    ) {
+        this.binarySerializerInterKey = keySerializer;
+        this.binarySerializerInterValue = valueSerializer;
+        this.binaryDeserializerInterKey = keyDeserializer;
+        this.binaryDeserializerInterValue = valueDeserializer;
+        return this;
+    }
+
+    public Combiner<K1, V1> getCombiner() {
+        return combiner;
+    }
+
+    public MapReduceJob<K1, V1, K2, V2> setCombiner(Combiner<K1, V1> combiner) {
+        this.combiner = combiner;
+        return this;
+    }
+
+    public RawComparator<K1> getRawComparator() {
+        return rawComparator;
+    }
+
+    @SuppressWarnings("unchecked")
+    public MapReduceJob<K1, V1, K2, V2> setRawComparator(RawComparator<K1> rawComparator) {
+        this.rawComparator = rawComparator;
+        // The integer raw comparator reads fixed-width keys, the default key codec writes decimal text.
+        if (rawComparator == PredefinedFunctions.INTEGER_RAW_COMPARATOR) {
+            binarySerializerInterKey = (BinarySerializer<K1>) PredefinedFunctions.INTEGER_BINARY_SERIALIZER;
+            binaryDeserializerInterKey = (BinaryDeserializer<K1>) PredefinedFunctions.INTEGER_BINARY_DESERIALIZER;
+        }
+        return this;
+    }
+
+    public SizeEstimator<K1, V1> getSizeEstimator() {
+        return sizeEstimator != null
+            ? sizeEstimator
+            : SizeEstimator.serializedSize(getBinarySerializerInterKey(), getBinarySerializerInterValue());
+    }
+
+    public MapReduceJob<K1, V1, K2, V2> setSizeEstimator(SizeEstimator<K1, V1> sizeEstimator) {
+        this.sizeEstimator = sizeEstimator;
+        return this;
+    }
+
+    public Partitioner<K1> getPartitioner() {
+        return partitioner;
+    }
+
+    public MapReduceJob<K1, V1, K2, V2> setPartitioner(Partitioner<K1> partitioner) {
+        this.partitioner = partitioner;
+        return this;
+    }
 }
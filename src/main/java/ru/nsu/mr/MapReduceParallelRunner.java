@@ -0,0 +1,114 @@
+package ru.nsu.mr;
+
+import ru.nsu.mr.config.Configuration;
+import ru.nsu.mr.config.ConfigurationOption;
+
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+public class MapReduceParallelRunner<KEY_INTER, VALUE_INTER, KEY_OUT, VALUE_OUT>
+    implements MapReduceRunner<KEY_INTER, VALUE_INTER, KEY_OUT, VALUE_OUT>
+{
+    public MapReduceParallelRunner() {
+    }
+
+    @Override
+    public JobResult run(
+        MapReduceJob<KEY_INTER, VALUE_INTER, KEY_OUT, VALUE_OUT> job,
+        List<Path> inputFiles,
+        Configuration configuration,
+        Path mappersOutputDirectory,
+        Path outputDirectory)
+    {
+        long startTime = System.nanoTime();
+        JobPlan<KEY_INTER, VALUE_INTER, KEY_OUT, VALUE_OUT> plan =
+            new JobPlan<>(job, inputFiles, configuration, mappersOutputDirectory, outputDirectory);
+
+        int workersCount = configuration.get(ConfigurationOption.WORKERS_COUNT);
+        List<ReduceTask<KEY_INTER, VALUE_INTER, KEY_OUT, VALUE_OUT>> reduceTasks = plan.getReduceTasks();
+        ExecutorService executor = Executors.newFixedThreadPool(workersCount);
+        ExecutorService reduceExecutor = null;
+        try {
+            if (!configuration.get(ConfigurationOption.REDUCE_PIPELINED)) {
+                runPhase(executor, plan.getMapTasks(), task -> {});
+                runPhase(executor, plan.getSaltCombineTasks(), task -> {});
+                runPhase(executor, reduceTasks, task -> {});
+            } else {
+                reduceExecutor = Executors.newFixedThreadPool(Math.min(workersCount, reduceTasks.size()));
+                for (ReduceTask<?, ?, ?, ?> reduceTask : reduceTasks) {
+                    reduceTask.pipelineInputs();
+                }
+                Phase reducePhase = new Phase(reduceExecutor, reduceTasks);
+                Consumer<Task> publishOutputs = task -> {
+                    for (Path outputFile : task.getOutputFiles()) {
+                        for (ReduceTask<?, ?, ?, ?> reduceTask : reduceTasks) {
+                            reduceTask.inputReady(outputFile);
+                        }
+                    }
+                };
+                runPhase(executor, plan.getMapTasks(), publishOutputs);
+                runPhase(executor, plan.getSaltCombineTasks(), publishOutputs);
+                reducePhase.await(task -> {});
+            }
+        } finally {
+            executor.shutdownNow();
+            if (reduceExecutor != null) {
+                reduceExecutor.shutdownNow();
+                awaitTermination(reduceExecutor);
+            }
+            awaitTermination(executor);
+        }
+        return JobResult.of(plan, System.nanoTime() - startTime);
+    }
+
+    private static void runPhase(ExecutorService executor, List<? extends Task> tasks, Consumer<Task> onCompletion) {
+        new Phase(executor, tasks).await(onCompletion);
+    }
+
+    private static class Phase {
+        private final CompletionService<Task> completionService;
+        private final List<Future<Task>> futures;
+
+        Phase(ExecutorService executor, List<? extends Task> tasks) {
+            completionService = new ExecutorCompletionService<>(executor);
+            futures = new ArrayList<>(tasks.size());
+            for (Task task : tasks) {
+                futures.add(completionService.submit(task::run, task));
+            }
+        }
+
+        void await(Consumer<Task> onCompletion) {
+            try {
+                for (int i = 0; i < futures.size(); ++i) {
+                    onCompletion.accept(completionService.take().get());
+                }
+            } catch (ExecutionException e) {
+                cancelAll(futures);
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw new RuntimeException(e.getCause());
+            } catch (InterruptedException e) {
+                cancelAll(futures);
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private static void awaitTermination(ExecutorService executor) {
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void cancelAll(List<? extends Future<?>> futures) {
+        for (Future<?> future : futures) {
+            future.cancel(true);
+        }
+    }
+}
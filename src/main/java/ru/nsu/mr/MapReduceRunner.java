@@ -6,7 +6,7 @@ import java.nio.file.Path;
 import java.util.List;
 
 public interface MapReduceRunner<KEY_INTER, VALUE_INTER, KEY_OUT, VALUE_OUT> {
-    void run(
+    JobResult run(
         MapReduceJob<KEY_INTER, VALUE_INTER, KEY_OUT, VALUE_OUT> job,
         List<Path> inputFiles,
         Configuration configuration,
@@ -0,0 +1,205 @@
+package ru.nsu.mr;
+
+import ru.nsu.mr.config.Configuration;
+import ru.nsu.mr.config.ConfigurationOption;
+import ru.nsu.mr.io.CompressionCodec;
+import ru.nsu.mr.io.CompressionCodecs;
+import ru.nsu.mr.sinks.FileSystemSink;
+import ru.nsu.mr.sinks.PartitionedSortedFileSink;
+import ru.nsu.mr.sinks.SortedFileSink;
+import ru.nsu.mr.sources.LineRecordIterator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MapTask<KEY_INTER, VALUE_INTER> extends Task {
+    private final MapReduceJob<KEY_INTER, VALUE_INTER, ?, ?> job;
+    private final int mapperId;
+    private final List<InputSplit> inputSplits;
+    private final List<Path> outputFiles;
+    private final List<Path> saltFiles;
+    private final Partitioner<KEY_INTER> partitioner;
+    private final Configuration configuration;
+    private final MapOutputCache cache;
+    private long outputRecords;
+
+    public MapTask(
+        MapReduceJob<KEY_INTER, VALUE_INTER, ?, ?> job,
+        int mapperId,
+        List<InputSplit> inputSplits,
+        List<Path> outputFiles,
+        List<Path> saltFiles,
+        Partitioner<KEY_INTER> partitioner,
+        Configuration configuration,
+        MapOutputCache cache
+    ) {
+        this.job = job;
+        this.mapperId = mapperId;
+        this.inputSplits = inputSplits;
+        this.outputFiles = outputFiles;
+        this.saltFiles = saltFiles;
+        this.partitioner = partitioner;
+        this.configuration = configuration;
+        this.cache = cache;
+    }
+
+    @Override
+    protected void execute() throws IOException {
+        if (cache == null) {
+            map();
+            return;
+        }
+        String key = cache.keyFor(inputSplits);
+        if (cache.restore(key, getAttemptFiles(), counters)) {
+            counters.increment(TaskCounter.MAP_OUTPUT_CACHE_HITS, 1);
+            return;
+        }
+        map();
+        cache.store(key, getAttemptFiles(), counters);
+    }
+
+    private void map() throws IOException {
+        outputRecords = 0;
+        List<Path> attemptFiles = getAttemptFiles();
+        int sorterInMemoryRecords = configuration.get(ConfigurationOption.SORTER_IN_MEMORY_RECORDS);
+        int mergeFactor = configuration.get(ConfigurationOption.SORTER_MERGE_FACTOR);
+        int asyncBufferSize = configuration.get(ConfigurationOption.SINK_ASYNC_BUFFER_BYTES);
+        boolean reuseRecords = configuration.get(ConfigurationOption.REUSE_RECORDS);
+        CompressionCodec codec = CompressionCodecs.forName(
+            configuration.get(ConfigurationOption.INTERMEDIATE_COMPRESSION_CODEC));
+        List<SortedFileSink<KEY_INTER, VALUE_INTER>> sinks = new ArrayList<>(outputFiles.size() + saltFiles.size());
+        for (Path attemptFile : attemptFiles) {
+            sinks.add(new SortedFileSink<>(
+                job.getBinarySerializerInterKey(),
+                job.getBinarySerializerInterValue(),
+                job.getBinaryDeserializerInterKey(),
+                job.getBinaryDeserializerInterValue(),
+                attemptFile,
+                sorterInMemoryRecords,
+                job.getComparator(),
+                job.getCombiner(),
+                codec,
+                mergeFactor,
+                job.getRawComparator()
+            ).setAsyncBufferSize(asyncBufferSize).setReuseRecords(reuseRecords).setCounters(counters));
+        }
+
+        Partitioner<KEY_INTER> mapPartitioner = saltFiles.isEmpty() ? partitioner : new SaltingPartitioner<>(
+            partitioner,
+            outputFiles.size(),
+            saltFiles.size(),
+            configuration.get(ConfigurationOption.SKEW_HOT_KEY_FRACTION)
+        );
+        PartitionedSortedFileSink<KEY_INTER, VALUE_INTER> sink =
+            new PartitionedSortedFileSink<>(sinks, mapPartitioner, sorterInMemoryRecords)
+                .setMemoryBudget(configuration.get(ConfigurationOption.SORTER_IN_MEMORY_BYTES), job.getSizeEstimator())
+                .setHeapSpillThreshold(
+                    configuration.get(ConfigurationOption.SORTER_HEAP_SPILL_THRESHOLD),
+                    configuration.get(ConfigurationOption.SORTER_HEAP_SPILL_MIN_RECORDS));
+        try (sink) {
+            OutputContext<KEY_INTER, VALUE_INTER> output = createOutputContext(sink);
+            long mapStartTime = System.nanoTime();
+            for (InputSplit inputSplit : inputSplits) {
+                try (LineRecordIterator lines = new LineRecordIterator(inputSplit)) {
+                    job.getMapper().map(lines, output);
+                    counters.increment(TaskCounter.MAP_INPUT_RECORDS, lines.getRecordsRead());
+                }
+                counters.increment(TaskCounter.BYTES_READ, inputSplit.length());
+            }
+            long spillNanos = 0;
+            for (SortedFileSink<KEY_INTER, VALUE_INTER> sortedSink : sinks) {
+                spillNanos += sortedSink.getSortNanos();
+            }
+            counters.increment(TaskCounter.MAP_TIME_NANOS, System.nanoTime() - mapStartTime - spillNanos);
+        }
+
+        counters.increment(TaskCounter.MAP_OUTPUT_RECORDS, outputRecords);
+        for (int i = 0; i < sinks.size(); ++i) {
+            SortedFileSink<KEY_INTER, VALUE_INTER> sortedSink = sinks.get(i);
+            counters.increment(TaskCounter.SPILL_COUNT, sortedSink.getSpillCount());
+            counters.increment(TaskCounter.SPILLED_RECORDS, sortedSink.getSpilledRecords());
+            counters.increment(TaskCounter.SPILLED_BYTES, sortedSink.getSpilledBytes());
+            counters.increment(TaskCounter.MERGE_PASSES, sortedSink.getMergePasses());
+            counters.increment(TaskCounter.SORT_TIME_NANOS, sortedSink.getSortNanos());
+            counters.increment(TaskCounter.MERGE_TIME_NANOS, sortedSink.getMergeNanos());
+            counters.increment(TaskCounter.BYTES_WRITTEN, Files.size(attemptFiles.get(i)));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private OutputContext<KEY_INTER, VALUE_INTER> createOutputContext(FileSystemSink<KEY_INTER, VALUE_INTER> sink) {
+        BinarySerializer<VALUE_INTER> valueSerializer = job.getBinarySerializerInterValue();
+        if (valueSerializer == PredefinedFunctions.INTEGER_BINARY_SERIALIZER) {
+            IntOutputContext<KEY_INTER> output = new IntOutputContext<>() {
+                @Override
+                public void putInt(KEY_INTER key, int value) {
+                    ++outputRecords;
+                    try {
+                        sink.putInt(key, value);
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+
+                @Override
+                public void increment(String counter, long amount) {
+                    counters.increment(counter, amount);
+                }
+            };
+            return (OutputContext<KEY_INTER, VALUE_INTER>) (OutputContext<KEY_INTER, ?>) output;
+        }
+        if (valueSerializer == PredefinedFunctions.LONG_BINARY_SERIALIZER) {
+            LongOutputContext<KEY_INTER> output = new LongOutputContext<>() {
+                @Override
+                public void putLong(KEY_INTER key, long value) {
+                    ++outputRecords;
+                    try {
+                        sink.putLong(key, value);
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+
+                @Override
+                public void increment(String counter, long amount) {
+                    counters.increment(counter, amount);
+                }
+            };
+            return (OutputContext<KEY_INTER, VALUE_INTER>) (OutputContext<KEY_INTER, ?>) output;
+        }
+        return new OutputContext<>() {
+            @Override
+            public void put(KEY_INTER key, VALUE_INTER value) {
+                ++outputRecords;
+                try {
+                    sink.put(key, value);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+
+            @Override
+            public void increment(String counter, long amount) {
+                counters.increment(counter, amount);
+            }
+        };
+    }
+
+    @Override
+    public List<Path> getOutputFiles() {
+        if (saltFiles.isEmpty()) {
+            return outputFiles;
+        }
+        List<Path> allOutputFiles = new ArrayList<>(outputFiles);
+        allOutputFiles.addAll(saltFiles);
+        return allOutputFiles;
+    }
+
+    @Override
+    public String toString() {
+        return "map task " + mapperId;
+    }
+}
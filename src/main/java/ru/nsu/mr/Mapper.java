@@ -1,7 +1,8 @@
 package ru.nsu.mr;
 
+import java.io.Serializable;
 import java.util.Iterator;
 
-public interface Mapper<KEY_IN, VALUE_IN, KEY_OUT, VALUE_OUT> {
+public interface Mapper<KEY_IN, VALUE_IN, KEY_OUT, VALUE_OUT> extends Serializable {
     void map(Iterator<Pair<KEY_IN, VALUE_IN>> input, OutputContext<KEY_OUT, VALUE_OUT> output);
 }
@@ -2,4 +2,7 @@ package ru.nsu.mr;
 
 public interface OutputContext<K, V> {
     void put(K key, V value);
-}
\ No newline at end of file
+
+    default void increment(String counter, long amount) {
+    }
+}
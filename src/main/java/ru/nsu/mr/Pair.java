@@ -1,4 +1,4 @@
 package ru.nsu.mr;
 
-public record Pair<K, V>(K key, V value) {
+public record Pair<K, V>(K key, V value) implements KeyValue<K, V> {
 }
@@ -0,0 +1,12 @@
+package ru.nsu.mr;
+
+import java.io.Serializable;
+import java.util.List;
+
+public interface Partitioner<K> extends Serializable {
+    int getPartition(K key, int partitionsCount);
+
+    default Partitioner<K> prepare(MapReduceJob<K, ?, ?, ?> job, List<InputSplit> inputSplits, int partitionsCount) {
+        return this;
+    }
+}
@@ -1,12 +1,121 @@
 package ru.nsu.mr;
 
+import ru.nsu.mr.io.TextEncoding;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Comparator;
 
 public class PredefinedFunctions {
     public static Serializer<String> STRING_SERIALIZER = x -> x;
-    public static Serializer<Integer> INTEGER_SERIALIZER = Object::toString;
+    public static Serializer<Integer> INTEGER_SERIALIZER = IntegerSerializer.INSTANCE;
     public static Deserializer<String> STRING_DESERIALIZER = x -> x;
     public static Deserializer<Integer> INTEGER_DESERIALIZER = Integer::parseInt;
-    public static Comparator<String> STRING_KEY_COMPARATOR = String::compareTo;
+    public static Serializer<Long> LONG_SERIALIZER = LongSerializer.INSTANCE;
+    public static Deserializer<Long> LONG_DESERIALIZER = Long::parseLong;
+    public static BinarySerializer<String> STRING_BINARY_SERIALIZER = x -> x.getBytes(StandardCharsets.UTF_8);
+    public static BinarySerializer<Integer> INTEGER_BINARY_SERIALIZER = IntegerBinarySerializer.INSTANCE;
+    public static BinarySerializer<Long> LONG_BINARY_SERIALIZER = LongBinarySerializer.INSTANCE;
+    public static BinaryDeserializer<String> STRING_BINARY_DESERIALIZER = BinaryDeserializer::decodeUtf8;
+    public static BinaryDeserializer<Integer> INTEGER_BINARY_DESERIALIZER = IntegerBinaryDeserializer.INSTANCE;
+    public static BinaryDeserializer<Long> LONG_BINARY_DESERIALIZER = LongBinaryDeserializer.INSTANCE;
+    public static Comparator<String> STRING_KEY_COMPARATOR = (Comparator<String> & Serializable) String::compareTo;
     public static KeyHasher<String> STRING_KEY_HASH = String::hashCode;
+    public static RawComparator<String> STRING_RAW_COMPARATOR = PredefinedFunctions::compareUtf8;
+    public static RawComparator<Integer> INTEGER_RAW_COMPARATOR =
+        (x, y) -> Integer.compare(x.getInt(x.position()), y.getInt(y.position()));
+
+    private enum IntegerSerializer implements Serializer<Integer> {
+        INSTANCE;
+
+        @Override
+        public String serialize(Integer input) {
+            return input.toString();
+        }
+
+        @Override
+        public boolean encodeTo(Integer input, ByteBuffer output) {
+            return encodeDecimal(input, output);
+        }
+    }
+
+    private enum LongSerializer implements Serializer<Long> {
+        INSTANCE;
+
+        @Override
+        public String serialize(Long input) {
+            return input.toString();
+        }
+
+        @Override
+        public boolean encodeTo(Long input, ByteBuffer output) {
+            return encodeDecimal(input, output);
+        }
+    }
+
+    // Enum singletons keep their identity across job serialization, the fixed-width fast paths rely on it.
+    private enum IntegerBinarySerializer implements BinarySerializer<Integer> {
+        INSTANCE;
+
+        @Override
+        public byte[] serialize(Integer x) {
+            return new byte[] {(byte) (x >>> 24), (byte) (x >>> 16), (byte) (x >>> 8), (byte) (int) x};
+        }
+    }
+
+    private enum LongBinarySerializer implements BinarySerializer<Long> {
+        INSTANCE;
+
+        @Override
+        public byte[] serialize(Long x) {
+            return new byte[] {
+                (byte) (x >>> 56), (byte) (x >>> 48), (byte) (x >>> 40), (byte) (x >>> 32),
+                (byte) (x >>> 24), (byte) (x >>> 16), (byte) (x >>> 8), (byte) (long) x
+            };
+        }
+    }
+
+    private enum IntegerBinaryDeserializer implements BinaryDeserializer<Integer> {
+        INSTANCE;
+
+        @Override
+        public Integer deserialize(ByteBuffer input) {
+            return input.getInt(input.position());
+        }
+    }
+
+    private enum LongBinaryDeserializer implements BinaryDeserializer<Long> {
+        INSTANCE;
+
+        @Override
+        public Long deserialize(ByteBuffer input) {
+            return input.getLong(input.position());
+        }
+    }
+
+    private static boolean encodeDecimal(long value, ByteBuffer output) {
+        if (output.remaining() < TextEncoding.decimalSize(value)) {
+            return false;
+        }
+        TextEncoding.writeDecimal(output, value);
+        return true;
+    }
+
+    private static int compareUtf8(ByteBuffer first, ByteBuffer second) {
+        int mismatch = first.mismatch(second);
+        if (mismatch < 0) {
+            return 0;
+        }
+        if (mismatch == first.remaining() || mismatch == second.remaining()) {
+            return Integer.compare(first.remaining(), second.remaining());
+        }
+        int firstByte = first.get(first.position() + mismatch) & 0xFF;
+        int secondByte = second.get(second.position() + mismatch) & 0xFF;
+        // String.compareTo orders UTF-16 units, so surrogate pairs sort below U+E000..U+FFFF.
+        if (firstByte >= 0xEE && secondByte >= 0xEE && (firstByte >= 0xF0) != (secondByte >= 0xF0)) {
+            return firstByte >= 0xF0 ? -1 : 1;
+        }
+        return Integer.compare(firstByte, secondByte);
+    }
 }
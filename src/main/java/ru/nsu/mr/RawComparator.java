@@ -0,0 +1,9 @@
+package ru.nsu.mr;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+
+@FunctionalInterface
+public interface RawComparator<T> extends Serializable {
+    int compare(ByteBuffer first, ByteBuffer second);
+}
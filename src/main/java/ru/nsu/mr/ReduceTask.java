@@ -0,0 +1,379 @@
+package ru.nsu.mr;
+
+import ru.nsu.mr.config.Configuration;
+import ru.nsu.mr.config.ConfigurationOption;
+import ru.nsu.mr.io.CompressionCodec;
+import ru.nsu.mr.io.CompressionCodecs;
+import ru.nsu.mr.io.RawBytes;
+import ru.nsu.mr.sinks.FileSink;
+import ru.nsu.mr.shuffle.ShuffleFetcher;
+import ru.nsu.mr.shuffle.ShuffleLocation;
+import ru.nsu.mr.shuffle.ShuffleSegment;
+import ru.nsu.mr.sinks.RunMerger;
+import ru.nsu.mr.sources.AutoCloseableSource;
+import ru.nsu.mr.sources.BinaryKeyValueFileIterator;
+import ru.nsu.mr.sources.DeserializedGroupsIterator;
+import ru.nsu.mr.sources.GroupedKeyValuesIterator;
+import ru.nsu.mr.sources.MergedKeyValueIterator;
+import ru.nsu.mr.sources.RecordIterator;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+public class ReduceTask<KEY_INTER, VALUE_INTER, KEY_OUT, VALUE_OUT> extends Task {
+    private final MapReduceJob<KEY_INTER, VALUE_INTER, KEY_OUT, VALUE_OUT> job;
+    private final int reducerId;
+    private final List<Path> inputFiles;
+    private final Path outputFile;
+    private final Configuration configuration;
+    private final List<BinaryKeyValueFileIterator<?, ?>> openedRuns = new ArrayList<>();
+    private final List<Path> receivedInputs = new ArrayList<>();
+    private final List<ShuffleLocation> receivedLocations = new ArrayList<>();
+    private final Set<String> announcedLocations = ConcurrentHashMap.newKeySet();
+    private List<ShuffleLocation> shuffleLocations;
+    private BlockingQueue<ShuffleLocation> readyLocations;
+    private BlockingQueue<Path> readyInputs;
+    private long outputRecords;
+
+    public ReduceTask(
+        MapReduceJob<KEY_INTER, VALUE_INTER, KEY_OUT, VALUE_OUT> job,
+        int reducerId,
+        List<Path> inputFiles,
+        Path outputFile,
+        Configuration configuration
+    ) {
+        this.job = job;
+        this.reducerId = reducerId;
+        this.inputFiles = inputFiles;
+        this.outputFile = outputFile;
+        this.configuration = configuration;
+    }
+
+    public ReduceTask<KEY_INTER, VALUE_INTER, KEY_OUT, VALUE_OUT> fetchFrom(List<ShuffleLocation> shuffleLocations) {
+        this.shuffleLocations = shuffleLocations;
+        this.readyLocations = null;
+        return this;
+    }
+
+    public ReduceTask<KEY_INTER, VALUE_INTER, KEY_OUT, VALUE_OUT> pipelineFetches() {
+        this.shuffleLocations = null;
+        this.readyLocations = new LinkedBlockingQueue<>();
+        receivedLocations.clear();
+        announcedLocations.clear();
+        return this;
+    }
+
+    public void locationsReady(List<ShuffleLocation> locations) {
+        for (ShuffleLocation location : locations) {
+            if (readyLocations != null && announcedLocations.add(location.fileName())) {
+                readyLocations.add(location);
+            }
+        }
+    }
+
+    public ReduceTask<KEY_INTER, VALUE_INTER, KEY_OUT, VALUE_OUT> pipelineInputs() {
+        this.readyInputs = new LinkedBlockingQueue<>();
+        return this;
+    }
+
+    public void inputReady(Path file) {
+        if (readyInputs != null && inputFiles.contains(file)) {
+            readyInputs.add(file);
+        }
+    }
+
+    @Override
+    protected void execute() throws IOException {
+        openedRuns.clear();
+        outputRecords = 0;
+        if (shuffleLocations != null || readyLocations != null) {
+            fetchAndReduce();
+        } else if (readyInputs != null) {
+            premergeAndReduce();
+        } else {
+            for (Path inputFile : inputFiles) {
+                counters.increment(TaskCounter.BYTES_READ, Files.size(inputFile));
+            }
+            mergeAndReduce(createRunMerger(), inputFiles, List.of(), inputFiles.getFirst().toAbsolutePath().getParent());
+        }
+    }
+
+    private void premergeAndReduce() throws IOException {
+        RunMerger<?, ?> runMerger = createRunMerger();
+        // Runs the planned intermediate passes as soon as enough inputs have arrived for them.
+        List<Integer> passFanIns = runMerger.planPasses(inputFiles.size(), 0);
+        int pass = 0;
+        Path tempDirectory = inputFiles.getFirst().toAbsolutePath().getParent();
+        List<Path> premergedRuns = new ArrayList<>();
+        List<Path> freshRuns = new ArrayList<>();
+        try {
+            for (int received = 0; received < inputFiles.size(); ++received) {
+                Path input = received < receivedInputs.size() ? receivedInputs.get(received) : takeReadyInput();
+                counters.increment(TaskCounter.BYTES_READ, Files.size(input));
+                freshRuns.add(input);
+                if (pass < passFanIns.size() && freshRuns.size() == passFanIns.get(pass)) {
+                    long mergeStartTime = System.nanoTime();
+                    premergedRuns.add(runMerger.mergeRuns(freshRuns, tempDirectory));
+                    freshRuns.clear();
+                    ++pass;
+                    counters.increment(TaskCounter.MERGE_TIME_NANOS, System.nanoTime() - mergeStartTime);
+                }
+            }
+            List<Path> runs = new ArrayList<>(premergedRuns);
+            runs.addAll(freshRuns);
+            mergeAndReduce(runMerger, runs, List.of(), tempDirectory);
+        } finally {
+            for (Path run : premergedRuns) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    private Path takeReadyInput() throws IOException {
+        try {
+            Path input = readyInputs.take();
+            receivedInputs.add(input);
+            return input;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(this + " interrupted while waiting for inputs");
+        }
+    }
+
+    private List<ShuffleLocation> takeReadyLocations(int fetched) throws IOException {
+        if (fetched < receivedLocations.size()) {
+            return new ArrayList<>(receivedLocations.subList(fetched, receivedLocations.size()));
+        }
+        try {
+            List<ShuffleLocation> locations = new ArrayList<>();
+            locations.add(readyLocations.take());
+            readyLocations.drainTo(locations);
+            receivedLocations.addAll(locations);
+            return locations;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(this + " interrupted while waiting for shuffle locations");
+        }
+    }
+
+    private void fetchAndReduce() throws IOException {
+        Path shuffleDirectory = Files.createTempDirectory(
+            inputFiles.getFirst().toAbsolutePath().getParent(), "shuffle-" + reducerId);
+        try {
+            long shuffleStartTime = System.nanoTime();
+            ShuffleFetcher fetcher = new ShuffleFetcher(
+                configuration.get(ConfigurationOption.SHUFFLE_PARALLEL_FETCHES),
+                configuration.get(ConfigurationOption.SHUFFLE_MEMORY_BYTES),
+                shuffleDirectory
+            );
+            List<ShuffleSegment> segments = new ArrayList<>(inputFiles.size());
+            if (shuffleLocations != null) {
+                segments.addAll(fetcher.fetch(shuffleLocations));
+            } else {
+                while (segments.size() < inputFiles.size()) {
+                    segments.addAll(fetcher.fetch(takeReadyLocations(segments.size())));
+                }
+            }
+            counters.increment(TaskCounter.SHUFFLE_TIME_NANOS, System.nanoTime() - shuffleStartTime);
+
+            List<Path> spilledSegments = new ArrayList<>();
+            List<ByteBuffer> inMemorySegments = new ArrayList<>();
+            for (ShuffleSegment segment : segments) {
+                counters.increment(TaskCounter.SHUFFLE_BYTES, segment.size());
+                counters.increment(TaskCounter.BYTES_READ, segment.size());
+                if (segment.isInMemory()) {
+                    inMemorySegments.add(segment.records());
+                } else {
+                    counters.increment(TaskCounter.SHUFFLE_SPILLED_BYTES, segment.size());
+                    spilledSegments.add(segment.file());
+                }
+            }
+            mergeAndReduce(createRunMerger(), spilledSegments, inMemorySegments, shuffleDirectory);
+        } finally {
+            try (Stream<Path> files = Files.list(shuffleDirectory)) {
+                for (Path file : files.toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(shuffleDirectory);
+        }
+    }
+
+    private RunMerger<?, ?> createRunMerger() {
+        RawComparator<KEY_INTER> rawComparator = job.getRawComparator();
+        int mergeFactor = configuration.get(ConfigurationOption.SORTER_MERGE_FACTOR);
+        CompressionCodec codec = CompressionCodecs.forName(
+            configuration.get(ConfigurationOption.INTERMEDIATE_COMPRESSION_CODEC));
+        RunMerger<?, ?> runMerger = rawComparator != null
+            ? RunMerger.raw(rawComparator, mergeFactor, codec)
+            : new RunMerger<>(
+                job.getBinarySerializerInterKey(),
+                job.getBinarySerializerInterValue(),
+                job.getBinaryDeserializerInterKey(),
+                job.getBinaryDeserializerInterValue(),
+                job.getComparator(),
+                mergeFactor,
+                codec
+            );
+        return runMerger.setAsyncBufferSize(configuration.get(ConfigurationOption.SINK_ASYNC_BUFFER_BYTES))
+            .setReuseRecords(configuration.get(ConfigurationOption.REUSE_RECORDS));
+    }
+
+    private void mergeAndReduce(
+        RunMerger<?, ?> runMerger,
+        List<Path> diskRuns,
+        List<ByteBuffer> inMemoryRuns,
+        Path tempDirectory
+    ) throws IOException {
+        RawComparator<KEY_INTER> rawComparator = job.getRawComparator();
+        boolean reuseRecords = configuration.get(ConfigurationOption.REUSE_RECORDS);
+        long mergeStartTime = System.nanoTime();
+        List<Path> runs = runMerger.reduceRuns(diskRuns, inMemoryRuns.size(), tempDirectory);
+        counters.increment(TaskCounter.MERGE_TIME_NANOS, System.nanoTime() - mergeStartTime);
+        counters.increment(TaskCounter.MERGE_PASSES, runMerger.getMergePasses());
+        try {
+            if (rawComparator != null) {
+                GroupedKeyValuesIterator<ByteBuffer, ByteBuffer> rawGroups = new GroupedKeyValuesIterator<>(
+                    new MergedKeyValueIterator<>(
+                        openRuns(runs, inMemoryRuns, RawBytes.DESERIALIZER, RawBytes.DESERIALIZER, reuseRecords),
+                        rawComparator::compare),
+                    reuseRecords ? RawBytes.reusableCopy() : UnaryOperator.identity());
+                try (DeserializedGroupsIterator<ByteBuffer, KEY_INTER, VALUE_INTER> groups =
+                         new DeserializedGroupsIterator<>(
+                             reuseRecords ? rawGroups.reuseRecords() : rawGroups,
+                             job.getBinaryDeserializerInterKey()::deserialize,
+                             job.getBinaryDeserializerInterValue())) {
+                    reduce(groups);
+                }
+            } else if (hasFixedWidthValues()) {
+                // Values stay views into the run buffers until the reducer reads them as primitives.
+                GroupedKeyValuesIterator<KEY_INTER, ByteBuffer> valueGroups = new GroupedKeyValuesIterator<>(
+                    new MergedKeyValueIterator<>(
+                        openRuns(runs, inMemoryRuns, job.getBinaryDeserializerInterKey(), RawBytes.DESERIALIZER, true),
+                        job.getComparator()));
+                try (DeserializedGroupsIterator<KEY_INTER, KEY_INTER, VALUE_INTER> groups =
+                         new DeserializedGroupsIterator<>(
+                             reuseRecords ? valueGroups.reuseRecords() : valueGroups,
+                             UnaryOperator.identity(),
+                             job.getBinaryDeserializerInterValue())) {
+                    reduce(groups);
+                }
+            } else {
+                try (GroupedKeyValuesIterator<KEY_INTER, VALUE_INTER> groups = new GroupedKeyValuesIterator<>(
+                        new MergedKeyValueIterator<>(
+                            openRuns(runs, inMemoryRuns, job.getBinaryDeserializerInterKey(),
+                                job.getBinaryDeserializerInterValue(), reuseRecords),
+                            job.getComparator()))) {
+                    reduce(reuseRecords ? groups.reuseRecords() : groups);
+                }
+            }
+        } finally {
+            for (Path run : runs) {
+                if (!diskRuns.contains(run)) {
+                    Files.deleteIfExists(run);
+                }
+            }
+        }
+    }
+
+    private boolean hasFixedWidthValues() {
+        BinaryDeserializer<VALUE_INTER> valueDeserializer = job.getBinaryDeserializerInterValue();
+        return valueDeserializer == PredefinedFunctions.INTEGER_BINARY_DESERIALIZER
+            || valueDeserializer == PredefinedFunctions.LONG_BINARY_DESERIALIZER;
+    }
+
+    private <K, V> List<Iterator<Pair<K, V>>> openRuns(
+        List<Path> runs,
+        List<ByteBuffer> inMemoryRuns,
+        BinaryDeserializer<K> keyDeserializer,
+        BinaryDeserializer<V> valueDeserializer,
+        boolean reuseRecords
+    ) throws IOException {
+        List<Iterator<Pair<K, V>>> inputs = new ArrayList<>(runs.size() + inMemoryRuns.size());
+        int firstOpened = openedRuns.size();
+        try {
+            for (ByteBuffer run : inMemoryRuns) {
+                BinaryKeyValueFileIterator<K, V> input =
+                    new BinaryKeyValueFileIterator<>(run, keyDeserializer, valueDeserializer);
+                openedRuns.add(input);
+                inputs.add(reuseRecords ? input.reuseRecords() : input);
+            }
+            for (Path run : runs) {
+                BinaryKeyValueFileIterator<K, V> input =
+                    new BinaryKeyValueFileIterator<>(run, keyDeserializer, valueDeserializer);
+                openedRuns.add(input);
+                inputs.add(reuseRecords ? input.reuseRecords() : input);
+            }
+        } catch (IOException | RuntimeException e) {
+            AutoCloseableSource.closeAfterFailure(openedRuns.subList(firstOpened, openedRuns.size()), e);
+            throw e;
+        }
+        return inputs;
+    }
+
+    private void reduce(Iterator<Pair<KEY_INTER, Iterator<VALUE_INTER>>> groups) throws IOException {
+        long reduceStartTime = System.nanoTime();
+        long groupsCount = 0;
+        Path attemptFile = getAttemptFiles().getFirst();
+        try (FileSink<KEY_OUT, VALUE_OUT> sink = new FileSink<>(
+                job.getSerializerOutKey(), job.getSerializerOutValue(), attemptFile,
+                configuration.get(ConfigurationOption.SINK_ASYNC_BUFFER_BYTES))) {
+            OutputContext<KEY_OUT, VALUE_OUT> output = new OutputContext<>() {
+                @Override
+                public void put(KEY_OUT key, VALUE_OUT value) {
+                    ++outputRecords;
+                    try {
+                        sink.put(key, value);
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+
+                @Override
+                public void increment(String counter, long amount) {
+                    counters.increment(counter, amount);
+                }
+            };
+            while (groups.hasNext()) {
+                KeyValue<KEY_INTER, Iterator<VALUE_INTER>> group = RecordIterator.nextRecord(groups);
+                ++groupsCount;
+                job.getReducer().reduce(group.key(), group.value(), output);
+            }
+        }
+        counters.increment(TaskCounter.REDUCE_TIME_NANOS, System.nanoTime() - reduceStartTime);
+        counters.increment(TaskCounter.REDUCE_INPUT_GROUPS, groupsCount);
+        counters.increment(TaskCounter.REDUCE_OUTPUT_RECORDS, outputRecords);
+        long inputRecords = 0;
+        for (BinaryKeyValueFileIterator<?, ?> run : openedRuns) {
+            inputRecords += run.getRecordsRead();
+        }
+        counters.increment(TaskCounter.REDUCE_INPUT_RECORDS, inputRecords);
+        counters.increment(TaskCounter.BYTES_WRITTEN, Files.size(attemptFile));
+    }
+
+    public List<Path> getInputFiles() {
+        return inputFiles;
+    }
+
+    @Override
+    public List<Path> getOutputFiles() {
+        return List.of(outputFile);
+    }
+
+    @Override
+    public String toString() {
+        return "reduce task " + reducerId;
+    }
+}
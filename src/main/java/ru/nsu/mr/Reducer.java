@@ -1,7 +1,8 @@
 package ru.nsu.mr;
 
+import java.io.Serializable;
 import java.util.Iterator;
 
-public interface Reducer<KEY_IN, VALUE_IN, KEY_OUT, VALUE_OUT> {
+public interface Reducer<KEY_IN, VALUE_IN, KEY_OUT, VALUE_OUT> extends Serializable {
     void reduce(KEY_IN key, Iterator<VALUE_IN> values, OutputContext<KEY_OUT, VALUE_OUT> output);
 }
@@ -0,0 +1,28 @@
+package ru.nsu.mr;
+
+// Sources in record reuse mode refill the same instance, so a record is valid only until the next nextRecord() call.
+public final class ReusablePair<K, V> implements KeyValue<K, V> {
+    private K key;
+    private V value;
+
+    public ReusablePair<K, V> set(K key, V value) {
+        this.key = key;
+        this.value = value;
+        return this;
+    }
+
+    @Override
+    public K key() {
+        return key;
+    }
+
+    @Override
+    public V value() {
+        return value;
+    }
+
+    @Override
+    public String toString() {
+        return "ReusablePair[key=" + key + ", value=" + value + "]";
+    }
+}
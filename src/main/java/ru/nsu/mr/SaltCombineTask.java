@@ -0,0 +1,140 @@
+package ru.nsu.mr;
+
+import ru.nsu.mr.config.Configuration;
+import ru.nsu.mr.config.ConfigurationOption;
+import ru.nsu.mr.io.CompressionCodec;
+import ru.nsu.mr.io.CompressionCodecs;
+import ru.nsu.mr.sinks.BinaryFileSink;
+import ru.nsu.mr.sinks.FileSystemSink;
+import ru.nsu.mr.sinks.PartitionedFileSink;
+import ru.nsu.mr.sinks.RunMerger;
+import ru.nsu.mr.sources.AutoCloseableSource;
+import ru.nsu.mr.sources.BinaryKeyValueFileIterator;
+import ru.nsu.mr.sources.GroupedKeyValuesIterator;
+import ru.nsu.mr.sources.MergedKeyValueIterator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+public class SaltCombineTask<KEY_INTER, VALUE_INTER> extends Task {
+    private final MapReduceJob<KEY_INTER, VALUE_INTER, ?, ?> job;
+    private final AssociativeReducer<KEY_INTER, VALUE_INTER> reducer;
+    private final int saltSlot;
+    private final List<Path> inputFiles;
+    private final List<Path> outputFiles;
+    private final Partitioner<KEY_INTER> partitioner;
+    private final Configuration configuration;
+
+    public SaltCombineTask(
+        MapReduceJob<KEY_INTER, VALUE_INTER, ?, ?> job,
+        AssociativeReducer<KEY_INTER, VALUE_INTER> reducer,
+        int saltSlot,
+        List<Path> inputFiles,
+        List<Path> outputFiles,
+        Partitioner<KEY_INTER> partitioner,
+        Configuration configuration
+    ) {
+        this.job = job;
+        this.reducer = reducer;
+        this.saltSlot = saltSlot;
+        this.inputFiles = inputFiles;
+        this.outputFiles = outputFiles;
+        this.partitioner = partitioner;
+        this.configuration = configuration;
+    }
+
+    @Override
+    protected void execute() throws IOException {
+        CompressionCodec codec = CompressionCodecs.forName(
+            configuration.get(ConfigurationOption.INTERMEDIATE_COMPRESSION_CODEC));
+        int asyncBufferSize = configuration.get(ConfigurationOption.SINK_ASYNC_BUFFER_BYTES);
+        boolean reuseRecords = configuration.get(ConfigurationOption.REUSE_RECORDS);
+        RunMerger<KEY_INTER, VALUE_INTER> runMerger = new RunMerger<>(
+            job.getBinarySerializerInterKey(),
+            job.getBinarySerializerInterValue(),
+            job.getBinaryDeserializerInterKey(),
+            job.getBinaryDeserializerInterValue(),
+            job.getComparator(),
+            configuration.get(ConfigurationOption.SORTER_MERGE_FACTOR),
+            codec
+        ).setAsyncBufferSize(asyncBufferSize).setReuseRecords(reuseRecords);
+        List<Path> attemptFiles = getAttemptFiles();
+        List<Path> runs = runMerger.reduceRuns(inputFiles, 0, inputFiles.getFirst().toAbsolutePath().getParent());
+        try {
+            List<Iterator<Pair<KEY_INTER, VALUE_INTER>>> inputs = new ArrayList<>(runs.size());
+            List<FileSystemSink<KEY_INTER, VALUE_INTER>> sinks = new ArrayList<>(outputFiles.size());
+            PartitionedFileSink<KEY_INTER, VALUE_INTER> sink;
+            try {
+                for (Path run : runs) {
+                    BinaryKeyValueFileIterator<KEY_INTER, VALUE_INTER> input = new BinaryKeyValueFileIterator<>(
+                        run,
+                        job.getBinaryDeserializerInterKey(),
+                        job.getBinaryDeserializerInterValue()
+                    );
+                    inputs.add(reuseRecords ? input.reuseRecords() : input);
+                }
+                for (Path attemptFile : attemptFiles) {
+                    sinks.add(new BinaryFileSink<>(job.getBinarySerializerInterKey(),
+                        job.getBinarySerializerInterValue(), attemptFile, codec, asyncBufferSize));
+                }
+                sink = new PartitionedFileSink<>(sinks, partitioner);
+            } catch (IOException | RuntimeException e) {
+                AutoCloseableSource.closeAfterFailure(inputs, e);
+                AutoCloseableSource.closeAfterFailure(sinks, e);
+                throw e;
+            }
+
+            // The sink comes first, so a merge that fails on its first records still closes it.
+            try (sink;
+                 GroupedKeyValuesIterator<KEY_INTER, VALUE_INTER> groups = new GroupedKeyValuesIterator<>(
+                     new MergedKeyValueIterator<>(inputs, job.getComparator()))) {
+                OutputContext<KEY_INTER, VALUE_INTER> output = new OutputContext<>() {
+                    @Override
+                    public void put(KEY_INTER key, VALUE_INTER value) {
+                        try {
+                            sink.put(key, value);
+                        } catch (IOException e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+
+                    @Override
+                    public void increment(String counter, long amount) {
+                        counters.increment(counter, amount);
+                    }
+                };
+                if (reuseRecords) {
+                    groups.reuseRecords();
+                }
+                while (groups.hasNext()) {
+                    KeyValue<KEY_INTER, Iterator<VALUE_INTER>> group = groups.nextRecord();
+                    reducer.reduce(group.key(), group.value(), output);
+                }
+            }
+            counters.increment(TaskCounter.MERGE_PASSES, runMerger.getMergePasses());
+            for (Path attemptFile : attemptFiles) {
+                counters.increment(TaskCounter.BYTES_WRITTEN, Files.size(attemptFile));
+            }
+        } finally {
+            for (Path run : runs) {
+                if (!inputFiles.contains(run)) {
+                    Files.deleteIfExists(run);
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<Path> getOutputFiles() {
+        return outputFiles;
+    }
+
+    @Override
+    public String toString() {
+        return "salt combine task " + saltSlot;
+    }
+}
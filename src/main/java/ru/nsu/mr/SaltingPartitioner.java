@@ -0,0 +1,30 @@
+package ru.nsu.mr;
+
+class SaltingPartitioner<K> implements Partitioner<K> {
+    private static final long WARMUP_RECORDS = 1000;
+
+    private final Partitioner<K> partitioner;
+    private final int reducersCount;
+    private final int saltSlotsCount;
+    private final double hotKeyFraction;
+    private final HeavyHitterSketch<K> sketch;
+    private int nextSaltSlot;
+
+    SaltingPartitioner(Partitioner<K> partitioner, int reducersCount, int saltSlotsCount, double hotKeyFraction) {
+        this.partitioner = partitioner;
+        this.reducersCount = reducersCount;
+        this.saltSlotsCount = saltSlotsCount;
+        this.hotKeyFraction = hotKeyFraction;
+        this.sketch = new HeavyHitterSketch<>((int) Math.ceil(2 / hotKeyFraction));
+    }
+
+    @Override
+    public int getPartition(K key, int partitionsCount) {
+        long count = sketch.add(key);
+        if (sketch.getTotalCount() >= WARMUP_RECORDS && count >= hotKeyFraction * sketch.getTotalCount()) {
+            nextSaltSlot = (nextSaltSlot + 1) % saltSlotsCount;
+            return reducersCount + nextSaltSlot;
+        }
+        return partitioner.getPartition(key, reducersCount);
+    }
+}
@@ -1,6 +1,20 @@
 package ru.nsu.mr;
 
+import ru.nsu.mr.io.TextEncoding;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+
 @FunctionalInterface
-public interface Serializer<T> {
+public interface Serializer<T> extends Serializable {
     String serialize(T input);
+
+    default boolean encodeTo(T input, ByteBuffer output) {
+        String text = serialize(input);
+        if (output.remaining() < TextEncoding.utf8Size(text)) {
+            return false;
+        }
+        TextEncoding.writeUtf8(output, text);
+        return true;
+    }
 }
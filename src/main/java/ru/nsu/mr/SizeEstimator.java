@@ -0,0 +1,27 @@
+package ru.nsu.mr;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+
+@FunctionalInterface
+public interface SizeEstimator<K, V> extends Serializable {
+    long estimate(K key, V value);
+
+    static <K, V> SizeEstimator<K, V> serializedSize(
+        BinarySerializer<K> keySerializer,
+        BinarySerializer<V> valueSerializer
+    ) {
+        return (key, value) -> sizeOf(keySerializer, key) + sizeOf(valueSerializer, value);
+    }
+
+    private static <T> long sizeOf(BinarySerializer<T> serializer, T value) {
+        return switch (value) {
+            case String string -> string.length();
+            case Integer ignored -> Integer.BYTES;
+            case Long ignored -> Long.BYTES;
+            case byte[] bytes -> bytes.length;
+            case ByteBuffer bytes -> bytes.remaining();
+            default -> serializer.serialize(value).length;
+        };
+    }
+}
@@ -0,0 +1,100 @@
+package ru.nsu.mr;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+public abstract class Task {
+    protected Counters counters = new Counters();
+    private long elapsedNanos;
+    private int maxAttempts = 1;
+    private int attempt;
+    private JobManifest manifest;
+
+    protected abstract void execute() throws IOException;
+
+    public abstract List<Path> getOutputFiles();
+
+    public Task setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        return this;
+    }
+
+    public Task setManifest(JobManifest manifest) {
+        this.manifest = manifest;
+        return this;
+    }
+
+    public final void run() {
+        long startTime = System.nanoTime();
+        try {
+            if (manifest != null && manifest.isCommitted(this)) {
+                counters = new Counters();
+                counters.increment(TaskCounter.RESUMED_TASKS, 1);
+                return;
+            }
+            List<Exception> failures = new ArrayList<>();
+            for (attempt = 0; ; ++attempt) {
+                counters = new Counters();
+                try {
+                    execute();
+                    commit();
+                    break;
+                } catch (IOException | RuntimeException e) {
+                    cleanup(e);
+                    if (attempt + 1 >= maxAttempts || isInterrupted(e)) {
+                        failures.forEach(e::addSuppressed);
+                        throw new RuntimeException(this + " failed", e);
+                    }
+                    failures.add(e);
+                }
+            }
+            counters.increment(TaskCounter.FAILED_TASK_ATTEMPTS, attempt);
+        } finally {
+            elapsedNanos = System.nanoTime() - startTime;
+        }
+    }
+
+    protected List<Path> getAttemptFiles() {
+        List<Path> outputFiles = getOutputFiles();
+        List<Path> attemptFiles = new ArrayList<>(outputFiles.size());
+        for (Path outputFile : outputFiles) {
+            attemptFiles.add(outputFile.resolveSibling("." + outputFile.getFileName() + ".attempt-" + attempt));
+        }
+        return attemptFiles;
+    }
+
+    public TaskMetrics getMetrics() {
+        return new TaskMetrics(toString(), elapsedNanos, counters);
+    }
+
+    private void commit() throws IOException {
+        List<Path> outputFiles = getOutputFiles();
+        List<Path> attemptFiles = getAttemptFiles();
+        for (int i = 0; i < outputFiles.size(); ++i) {
+            Files.move(attemptFiles.get(i), outputFiles.get(i),
+                StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (manifest != null) {
+            manifest.commit(this);
+        }
+    }
+
+    private static boolean isInterrupted(Exception e) {
+        return e instanceof InterruptedIOException || Thread.currentThread().isInterrupted();
+    }
+
+    private void cleanup(Exception cause) {
+        for (Path attemptFile : getAttemptFiles()) {
+            try {
+                Files.deleteIfExists(attemptFile);
+            } catch (IOException e) {
+                cause.addSuppressed(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package ru.nsu.mr;
+
+public enum TaskCounter {
+    MAP_INPUT_RECORDS,
+    MAP_OUTPUT_RECORDS,
+    REDUCE_INPUT_GROUPS,
+    REDUCE_INPUT_RECORDS,
+    REDUCE_OUTPUT_RECORDS,
+    BYTES_READ,
+    BYTES_WRITTEN,
+    SPILL_COUNT,
+    SPILLED_RECORDS,
+    SPILLED_BYTES,
+    MERGE_PASSES,
+    SHUFFLE_BYTES,
+    SHUFFLE_SPILLED_BYTES,
+    MAP_OUTPUT_CACHE_HITS,
+    FAILED_TASK_ATTEMPTS,
+    RESUMED_TASKS,
+    MAP_TIME_NANOS,
+    SORT_TIME_NANOS,
+    SHUFFLE_TIME_NANOS,
+    MERGE_TIME_NANOS,
+    REDUCE_TIME_NANOS
+}
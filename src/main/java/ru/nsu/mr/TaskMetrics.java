@@ -0,0 +1,6 @@
+package ru.nsu.mr;
+
+import java.io.Serializable;
+
+public record TaskMetrics(String taskName, long elapsedNanos, Counters counters) implements Serializable {
+}
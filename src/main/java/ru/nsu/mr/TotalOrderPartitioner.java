@@ -0,0 +1,98 @@
+package ru.nsu.mr;
+
+import ru.nsu.mr.sources.LineRecordIterator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+public class TotalOrderPartitioner<K> implements Partitioner<K> {
+    private static final int MAX_SAMPLED_SPLITS = 16;
+
+    private final int samplesCount;
+    private final Comparator<K> comparator;
+    private final List<K> splitPoints;
+
+    public TotalOrderPartitioner(int samplesCount) {
+        if (samplesCount <= 0) {
+            throw new IllegalArgumentException("Samples count must be positive.");
+        }
+        this.samplesCount = samplesCount;
+        this.comparator = null;
+        this.splitPoints = null;
+    }
+
+    public TotalOrderPartitioner(Comparator<K> comparator, List<K> splitPoints) {
+        this.samplesCount = 0;
+        this.comparator = comparator;
+        this.splitPoints = List.copyOf(splitPoints);
+    }
+
+    @Override
+    public int getPartition(K key, int partitionsCount) {
+        if (splitPoints == null) {
+            throw new IllegalStateException("Total order partitioner has not been sampled.");
+        }
+        int index = Collections.binarySearch(splitPoints, key, comparator);
+        int partition = index >= 0 ? index + 1 : -(index + 1);
+        return Math.min(partition, partitionsCount - 1);
+    }
+
+    public List<K> getSplitPoints() {
+        return splitPoints;
+    }
+
+    @Override
+    public Partitioner<K> prepare(MapReduceJob<K, ?, ?, ?> job, List<InputSplit> inputSplits, int partitionsCount) {
+        if (splitPoints != null) {
+            return this;
+        }
+
+        List<K> samples = new ArrayList<>();
+        int sampledSplitsCount = Math.min(inputSplits.size(), MAX_SAMPLED_SPLITS);
+        for (int i = 0; i < sampledSplitsCount; ++i) {
+            InputSplit split = inputSplits.get((int) ((long) i * inputSplits.size() / sampledSplitsCount));
+            sampleSplit(job, split, (samplesCount + sampledSplitsCount - 1) / sampledSplitsCount, samples);
+        }
+        samples.sort(job.getComparator());
+
+        List<K> sampledSplitPoints = new ArrayList<>(partitionsCount - 1);
+        for (int i = 1; i < partitionsCount && !samples.isEmpty(); ++i) {
+            K candidate = samples.get((int) ((long) i * samples.size() / partitionsCount));
+            if (sampledSplitPoints.isEmpty() || job.getComparator().compare(sampledSplitPoints.getLast(), candidate) < 0) {
+                sampledSplitPoints.add(candidate);
+            }
+        }
+        return new TotalOrderPartitioner<>(job.getComparator(), sampledSplitPoints);
+    }
+
+    private static <K, V> void sampleSplit(MapReduceJob<K, V, ?, ?> job, InputSplit split, int limit, List<K> samples) {
+        int samplesBefore = samples.size();
+        try (LineRecordIterator lines = new LineRecordIterator(split)) {
+            Iterator<Pair<String, String>> limitedLines = new Iterator<>() {
+                private int linesRead;
+
+                @Override
+                public boolean hasNext() {
+                    return linesRead < limit && samples.size() - samplesBefore < limit && lines.hasNext();
+                }
+
+                @Override
+                public Pair<String, String> next() {
+                    ++linesRead;
+                    return lines.next();
+                }
+            };
+            job.getMapper().map(limitedLines, (key, value) -> {
+                if (samples.size() - samplesBefore < limit) {
+                    samples.add(key);
+                }
+            });
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
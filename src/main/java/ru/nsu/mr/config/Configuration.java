@@ -1,9 +1,10 @@
 package ru.nsu.mr.config;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 
-public class Configuration {
+public class Configuration implements Serializable {
     final Map<String, Object> values = new HashMap<>();
 
     public <T> Configuration set(ConfigurationOption<T> option, T value) {
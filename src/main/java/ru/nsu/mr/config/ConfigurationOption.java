@@ -14,11 +14,119 @@ public class ConfigurationOption<T> {
         1
     );
 
+    public static ConfigurationOption<Integer> WORKERS_COUNT = new ConfigurationOption<>(
+        "runtime.worker.count",
+        Runtime.getRuntime().availableProcessors()
+    );
+
+    // Pipelined reducers run next to the map tasks on their own threads, in the parallel runner as well as
+    // inside cluster workers, so runtime.worker.count no longer bounds how many tasks are busy at once.
+    public static ConfigurationOption<Boolean> REDUCE_PIPELINED = new ConfigurationOption<>(
+        "runtime.reduce.pipelined",
+        false
+    );
+
+    public static ConfigurationOption<Long> INPUT_SPLIT_SIZE = new ConfigurationOption<>(
+        "input.split.size",
+        64L * 1024 * 1024
+    );
+
     public static ConfigurationOption<Integer> SORTER_IN_MEMORY_RECORDS = new ConfigurationOption<>(
         "sorter.memory.n-records",
         10000
     );
 
+    public static ConfigurationOption<Long> SORTER_IN_MEMORY_BYTES = new ConfigurationOption<>(
+        "sorter.memory.bytes",
+        0L
+    );
+
+    public static ConfigurationOption<Double> SORTER_HEAP_SPILL_THRESHOLD = new ConfigurationOption<>(
+        "sorter.memory.heap-threshold",
+        0.0
+    );
+
+    public static ConfigurationOption<Integer> SORTER_HEAP_SPILL_MIN_RECORDS = new ConfigurationOption<>(
+        "sorter.memory.heap-threshold.min-records",
+        1024
+    );
+
+    public static ConfigurationOption<Integer> SORTER_MERGE_FACTOR = new ConfigurationOption<>(
+        "sorter.merge.factor",
+        64
+    );
+
+    public static ConfigurationOption<String> INTERMEDIATE_COMPRESSION_CODEC = new ConfigurationOption<>(
+        "intermediate.compression.codec",
+        "none"
+    );
+
+    public static ConfigurationOption<Integer> SINK_ASYNC_BUFFER_BYTES = new ConfigurationOption<>(
+        "sink.async.buffer-bytes",
+        0
+    );
+
+    public static ConfigurationOption<Boolean> REUSE_RECORDS = new ConfigurationOption<>(
+        "task.reuse-records",
+        false
+    );
+
+    public static ConfigurationOption<Integer> SKEW_SALT_SLOTS = new ConfigurationOption<>(
+        "skew.salt.slots",
+        0
+    );
+
+    public static ConfigurationOption<Double> SKEW_HOT_KEY_FRACTION = new ConfigurationOption<>(
+        "skew.hot-key.fraction",
+        0.05
+    );
+
+    public static ConfigurationOption<Integer> SHUFFLE_PARALLEL_FETCHES = new ConfigurationOption<>(
+        "shuffle.fetch.parallel",
+        5
+    );
+
+    public static ConfigurationOption<Long> SHUFFLE_MEMORY_BYTES = new ConfigurationOption<>(
+        "shuffle.memory.bytes",
+        64L * 1024 * 1024
+    );
+
+    public static ConfigurationOption<String> CLUSTER_WORKER_HEAP = new ConfigurationOption<>(
+        "cluster.worker.heap",
+        ""
+    );
+
+    public static ConfigurationOption<Integer> CLUSTER_WORKER_CONNECT_TIMEOUT_MILLIS = new ConfigurationOption<>(
+        "cluster.worker.connect-timeout.ms",
+        30000
+    );
+
+    public static ConfigurationOption<String> MAP_OUTPUT_CACHE_DIRECTORY = new ConfigurationOption<>(
+        "cache.map-output.directory",
+        ""
+    );
+
+    public static ConfigurationOption<Long> MAP_OUTPUT_CACHE_MAX_BYTES = new ConfigurationOption<>(
+        "cache.map-output.max-bytes",
+        10L * 1024 * 1024 * 1024
+    );
+
+    public static ConfigurationOption<Boolean> MAP_OUTPUT_CACHE_CONTENT_HASH = new ConfigurationOption<>(
+        "cache.map-output.content-hash",
+        false
+    );
+
+    // Retries are opt-in, a deterministic failure would otherwise run several times before failing the job.
+    public static ConfigurationOption<Integer> TASK_MAX_ATTEMPTS = new ConfigurationOption<>(
+        "task.max-attempts",
+        1
+    );
+
+    public static ConfigurationOption<Boolean> JOB_RESUME = new ConfigurationOption<>(
+        "job.resume",
+        false
+    );
+
     public ConfigurationOption(String name, T defaultValue) {
         this.name = name;
         this.defaultValue = defaultValue;
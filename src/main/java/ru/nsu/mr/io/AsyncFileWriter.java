@@ -0,0 +1,122 @@
+package ru.nsu.mr.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+public class AsyncFileWriter implements WritableByteChannel {
+    private static final int BUFFERS_COUNT = 2;
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+    private final FileChannel channel;
+    private final BlockingQueue<ByteBuffer> fullBuffers = new ArrayBlockingQueue<>(BUFFERS_COUNT + 1);
+    private final BlockingQueue<ByteBuffer> freeBuffers = new ArrayBlockingQueue<>(BUFFERS_COUNT);
+    private final Thread writerThread;
+    private volatile IOException failure;
+    private ByteBuffer current;
+    private boolean closed;
+
+    public AsyncFileWriter(FileChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.current = ByteBuffer.allocateDirect(bufferSize);
+        for (int i = 1; i < BUFFERS_COUNT; ++i) {
+            freeBuffers.add(ByteBuffer.allocateDirect(bufferSize));
+        }
+        this.writerThread = Thread.ofPlatform().daemon().name("async-file-writer").start(this::writeBuffers);
+    }
+
+    @Override
+    public int write(ByteBuffer source) throws IOException {
+        if (closed) {
+            throw new ClosedChannelException();
+        }
+        int written = source.remaining();
+        while (source.hasRemaining()) {
+            if (!current.hasRemaining()) {
+                submit();
+                current = takeFreeBuffer();
+            }
+            int length = Math.min(source.remaining(), current.remaining());
+            current.put(source.slice(source.position(), length));
+            source.position(source.position() + length);
+        }
+        return written;
+    }
+
+    private void submit() throws IOException {
+        checkFailure();
+        fullBuffers.add(current.flip());
+    }
+
+    private ByteBuffer takeFreeBuffer() throws IOException {
+        try {
+            return freeBuffers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a free write buffer");
+        }
+    }
+
+    private void writeBuffers() {
+        try {
+            while (true) {
+                ByteBuffer buffer = fullBuffers.take();
+                if (buffer == END) {
+                    return;
+                }
+                if (failure == null) {
+                    try {
+                        while (buffer.hasRemaining()) {
+                            channel.write(buffer);
+                        }
+                    } catch (IOException e) {
+                        failure = e;
+                    } catch (RuntimeException e) {
+                        failure = new IOException(e);
+                    }
+                }
+                freeBuffers.add(buffer.clear());
+            }
+        } catch (InterruptedException e) {
+            failure = new InterruptedIOException("Async file writer interrupted");
+        }
+    }
+
+    private void checkFailure() throws IOException {
+        if (failure != null) {
+            throw new IOException("Background write failed", failure);
+        }
+    }
+
+    @Override
+    public boolean isOpen() {
+        return !closed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (current.position() > 0) {
+                fullBuffers.add(current.flip());
+            }
+            fullBuffers.add(END);
+            writerThread.join();
+        } catch (InterruptedException e) {
+            writerThread.interrupt();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while flushing write buffers");
+        } finally {
+            channel.close();
+        }
+        checkFailure();
+    }
+}
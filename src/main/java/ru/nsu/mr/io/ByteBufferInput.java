@@ -0,0 +1,25 @@
+package ru.nsu.mr.io;
+
+import java.nio.ByteBuffer;
+
+public class ByteBufferInput implements ByteInput {
+    private final ByteBuffer buffer;
+
+    public ByteBufferInput(ByteBuffer buffer) {
+        this.buffer = buffer.slice();
+    }
+
+    @Override
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    @Override
+    public boolean ensureAvailable(int bytesCount) {
+        return buffer.remaining() >= bytesCount;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,13 @@
+package ru.nsu.mr.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+public interface ByteInput extends AutoCloseable {
+    ByteBuffer buffer();
+
+    boolean ensureAvailable(int bytesCount) throws IOException;
+
+    @Override
+    void close() throws IOException;
+}
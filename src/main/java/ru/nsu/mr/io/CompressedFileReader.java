@@ -0,0 +1,62 @@
+package ru.nsu.mr.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+public class CompressedFileReader implements ByteInput {
+    private static final int BLOCK_HEADER_SIZE = 2 * Integer.BYTES;
+
+    private final ByteInput blocks;
+    private final CompressionCodec codec;
+    private byte[] compressedBlock = new byte[0];
+    private ByteBuffer buffer = ByteBuffer.allocate(0);
+
+    public CompressedFileReader(ByteInput blocks, CompressionCodec codec) {
+        this.blocks = blocks;
+        this.codec = codec;
+    }
+
+    @Override
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    @Override
+    public boolean ensureAvailable(int bytesCount) throws IOException {
+        while (buffer.remaining() < bytesCount) {
+            if (!blocks.ensureAvailable(BLOCK_HEADER_SIZE)) {
+                return false;
+            }
+            readBlock();
+        }
+        return true;
+    }
+
+    private void readBlock() throws IOException {
+        ByteBuffer blockBuffer = blocks.buffer();
+        int rawLength = blockBuffer.getInt();
+        int compressedLength = blockBuffer.getInt();
+        if (!blocks.ensureAvailable(compressedLength)) {
+            throw new EOFException("Truncated compressed block");
+        }
+        if (compressedBlock.length < compressedLength) {
+            compressedBlock = new byte[compressedLength];
+        }
+        blocks.buffer().get(compressedBlock, 0, compressedLength);
+
+        int leftover = buffer.remaining();
+        if (buffer.capacity() < leftover + rawLength) {
+            buffer = ByteBuffer.allocate(leftover + rawLength).put(buffer);
+        } else {
+            buffer.compact();
+        }
+        codec.decompress(compressedBlock, 0, compressedLength, buffer.array(), leftover, rawLength);
+        buffer.position(leftover + rawLength).flip();
+    }
+
+    @Override
+    public void close() throws IOException {
+        blocks.close();
+    }
+}
@@ -0,0 +1,22 @@
+package ru.nsu.mr.io;
+
+import java.io.IOException;
+
+public interface CompressionCodec {
+    String getName();
+
+    byte getId();
+
+    int maxCompressedLength(int length);
+
+    int compress(byte[] input, int inputOffset, int inputLength, byte[] output, int outputOffset);
+
+    void decompress(
+        byte[] input,
+        int inputOffset,
+        int inputLength,
+        byte[] output,
+        int outputOffset,
+        int outputLength
+    ) throws IOException;
+}
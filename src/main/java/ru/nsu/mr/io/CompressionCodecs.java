@@ -0,0 +1,33 @@
+package ru.nsu.mr.io;
+
+import java.util.List;
+import java.util.zip.Deflater;
+
+public final class CompressionCodecs {
+    public static final CompressionCodec NONE = new NoCompressionCodec();
+    public static final CompressionCodec DEFLATE = new DeflateCodec(Deflater.BEST_SPEED);
+    public static final CompressionCodec LZ = new LzBlockCodec();
+
+    private static final List<CompressionCodec> CODECS = List.of(NONE, DEFLATE, LZ);
+
+    private CompressionCodecs() {
+    }
+
+    public static CompressionCodec forName(String name) {
+        for (CompressionCodec codec : CODECS) {
+            if (codec.getName().equals(name)) {
+                return codec;
+            }
+        }
+        throw new IllegalArgumentException("Unknown compression codec: " + name);
+    }
+
+    public static CompressionCodec forId(byte id) {
+        for (CompressionCodec codec : CODECS) {
+            if (codec.getId() == id) {
+                return codec;
+            }
+        }
+        throw new IllegalArgumentException("Unknown compression codec id: " + id);
+    }
+}
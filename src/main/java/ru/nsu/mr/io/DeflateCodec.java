@@ -0,0 +1,74 @@
+package ru.nsu.mr.io;
+
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+public class DeflateCodec implements CompressionCodec {
+    private final ThreadLocal<Deflater> deflaters;
+    private final ThreadLocal<Inflater> inflaters = ThreadLocal.withInitial(() -> new Inflater(true));
+
+    public DeflateCodec(int level) {
+        this.deflaters = ThreadLocal.withInitial(() -> new Deflater(level, true));
+    }
+
+    @Override
+    public String getName() {
+        return "deflate";
+    }
+
+    @Override
+    public byte getId() {
+        return 1;
+    }
+
+    @Override
+    public int maxCompressedLength(int length) {
+        return length + (length >> 12) + (length >> 14) + (length >> 25) + 13;
+    }
+
+    @Override
+    public int compress(byte[] input, int inputOffset, int inputLength, byte[] output, int outputOffset) {
+        Deflater deflater = deflaters.get();
+        deflater.reset();
+        deflater.setInput(input, inputOffset, inputLength);
+        deflater.finish();
+        int compressedLength = 0;
+        while (!deflater.finished()) {
+            compressedLength += deflater.deflate(
+                output, outputOffset + compressedLength, output.length - outputOffset - compressedLength);
+        }
+        return compressedLength;
+    }
+
+    @Override
+    public void decompress(
+        byte[] input,
+        int inputOffset,
+        int inputLength,
+        byte[] output,
+        int outputOffset,
+        int outputLength
+    ) throws IOException {
+        Inflater inflater = inflaters.get();
+        inflater.reset();
+        inflater.setInput(input, inputOffset, inputLength);
+        int decompressedLength = 0;
+        try {
+            while (decompressedLength < outputLength && !inflater.finished()) {
+                int inflated = inflater.inflate(
+                    output, outputOffset + decompressedLength, outputLength - decompressedLength);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                decompressedLength += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException(e);
+        }
+        if (decompressedLength != outputLength) {
+            throw new IOException("Corrupted deflate block");
+        }
+    }
+}
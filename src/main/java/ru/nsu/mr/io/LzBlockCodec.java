@@ -0,0 +1,173 @@
+package ru.nsu.mr.io;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+public class LzBlockCodec implements CompressionCodec {
+    private static final int MIN_MATCH = 4;
+    private static final int LAST_LITERALS = 5;
+    private static final int MAX_OFFSET = 0xFFFF;
+    private static final int HASH_BITS = 12;
+
+    private final ThreadLocal<int[]> hashTables = ThreadLocal.withInitial(() -> new int[1 << HASH_BITS]);
+
+    @Override
+    public String getName() {
+        return "lz";
+    }
+
+    @Override
+    public byte getId() {
+        return 2;
+    }
+
+    @Override
+    public int maxCompressedLength(int length) {
+        return length + length / 255 + 16;
+    }
+
+    @Override
+    public int compress(byte[] input, int inputOffset, int inputLength, byte[] output, int outputOffset) {
+        int[] hashTable = hashTables.get();
+        Arrays.fill(hashTable, -1);
+
+        int inputEnd = inputOffset + inputLength;
+        int matchLimit = inputEnd - LAST_LITERALS;
+        int anchor = inputOffset;
+        int position = inputOffset;
+        int outputPosition = outputOffset;
+
+        while (position + MIN_MATCH <= matchLimit) {
+            int sequence = readInt(input, position);
+            int hash = (sequence * -1640531535) >>> (32 - HASH_BITS);
+            int reference = hashTable[hash];
+            hashTable[hash] = position;
+            if (reference < 0 || position - reference > MAX_OFFSET || readInt(input, reference) != sequence) {
+                ++position;
+                continue;
+            }
+
+            int matchLength = MIN_MATCH;
+            while (position + matchLength < matchLimit && input[position + matchLength] == input[reference + matchLength]) {
+                ++matchLength;
+            }
+            outputPosition = writeSequence(
+                input, anchor, position - anchor, position - reference, matchLength, output, outputPosition);
+            position += matchLength;
+            anchor = position;
+        }
+
+        return writeSequence(input, anchor, inputEnd - anchor, 0, 0, output, outputPosition) - outputOffset;
+    }
+
+    private static int writeSequence(
+        byte[] input,
+        int literalsStart,
+        int literalsLength,
+        int matchOffset,
+        int matchLength,
+        byte[] output,
+        int outputPosition
+    ) {
+        int tokenPosition = outputPosition++;
+        int matchLengthCode = matchLength == 0 ? 0 : matchLength - MIN_MATCH;
+        int token = (Math.min(literalsLength, 15) << 4) | Math.min(matchLengthCode, 15);
+        output[tokenPosition] = (byte) token;
+
+        if (literalsLength >= 15) {
+            outputPosition = writeExtendedLength(literalsLength - 15, output, outputPosition);
+        }
+        System.arraycopy(input, literalsStart, output, outputPosition, literalsLength);
+        outputPosition += literalsLength;
+
+        if (matchLength != 0) {
+            output[outputPosition++] = (byte) matchOffset;
+            output[outputPosition++] = (byte) (matchOffset >>> 8);
+            if (matchLengthCode >= 15) {
+                outputPosition = writeExtendedLength(matchLengthCode - 15, output, outputPosition);
+            }
+        }
+        return outputPosition;
+    }
+
+    private static int writeExtendedLength(int length, byte[] output, int outputPosition) {
+        while (length >= 255) {
+            output[outputPosition++] = (byte) 255;
+            length -= 255;
+        }
+        output[outputPosition++] = (byte) length;
+        return outputPosition;
+    }
+
+    private static int readInt(byte[] input, int position) {
+        return (input[position] & 0xFF)
+            | (input[position + 1] & 0xFF) << 8
+            | (input[position + 2] & 0xFF) << 16
+            | (input[position + 3] & 0xFF) << 24;
+    }
+
+    @Override
+    public void decompress(
+        byte[] input,
+        int inputOffset,
+        int inputLength,
+        byte[] output,
+        int outputOffset,
+        int outputLength
+    ) throws IOException {
+        int inputPosition = inputOffset;
+        int inputEnd = inputOffset + inputLength;
+        int outputPosition = outputOffset;
+        int outputEnd = outputOffset + outputLength;
+
+        try {
+            while (inputPosition < inputEnd) {
+                int token = input[inputPosition++] & 0xFF;
+
+                int literalsLength = token >>> 4;
+                if (literalsLength == 15) {
+                    int extension;
+                    do {
+                        extension = input[inputPosition++] & 0xFF;
+                        literalsLength += extension;
+                    } while (extension == 255);
+                }
+                if (outputPosition + literalsLength > outputEnd) {
+                    throw new IOException("Corrupted lz block");
+                }
+                System.arraycopy(input, inputPosition, output, outputPosition, literalsLength);
+                inputPosition += literalsLength;
+                outputPosition += literalsLength;
+                if (inputPosition >= inputEnd) {
+                    break;
+                }
+
+                int matchOffset = (input[inputPosition] & 0xFF) | (input[inputPosition + 1] & 0xFF) << 8;
+                inputPosition += 2;
+                int matchLength = token & 0x0F;
+                if (matchLength == 15) {
+                    int extension;
+                    do {
+                        extension = input[inputPosition++] & 0xFF;
+                        matchLength += extension;
+                    } while (extension == 255);
+                }
+                matchLength += MIN_MATCH;
+
+                int reference = outputPosition - matchOffset;
+                if (matchOffset == 0 || reference < outputOffset || outputPosition + matchLength > outputEnd) {
+                    throw new IOException("Corrupted lz block");
+                }
+                for (int i = 0; i < matchLength; ++i) {
+                    output[outputPosition++] = output[reference + i];
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Corrupted lz block", e);
+        }
+
+        if (outputPosition != outputEnd) {
+            throw new IOException("Corrupted lz block");
+        }
+    }
+}
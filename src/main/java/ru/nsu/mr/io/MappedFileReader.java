@@ -0,0 +1,59 @@
+package ru.nsu.mr.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class MappedFileReader implements ByteInput {
+    private static final long DEFAULT_WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private final long windowSize;
+    private long windowStart;
+    private ByteBuffer window;
+
+    public MappedFileReader(Path path, long position) throws IOException {
+        this(path, position, DEFAULT_WINDOW_SIZE);
+    }
+
+    public MappedFileReader(Path path, long position, long windowSize) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.windowSize = windowSize;
+        map(Math.min(position, fileSize), 0);
+    }
+
+    private void map(long position, int minimumSize) throws IOException {
+        long size = Math.min(Math.max(windowSize, minimumSize), fileSize - position);
+        windowStart = position;
+        window = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+    }
+
+    @Override
+    public ByteBuffer buffer() {
+        return window;
+    }
+
+    public long position() {
+        return windowStart + window.position();
+    }
+
+    @Override
+    public boolean ensureAvailable(int bytesCount) throws IOException {
+        if (window.remaining() >= bytesCount) {
+            return true;
+        }
+        if (windowStart + window.limit() < fileSize) {
+            map(position(), bytesCount);
+        }
+        return window.remaining() >= bytesCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
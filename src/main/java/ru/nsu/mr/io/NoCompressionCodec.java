@@ -0,0 +1,36 @@
+package ru.nsu.mr.io;
+
+public class NoCompressionCodec implements CompressionCodec {
+    @Override
+    public String getName() {
+        return "none";
+    }
+
+    @Override
+    public byte getId() {
+        return 0;
+    }
+
+    @Override
+    public int maxCompressedLength(int length) {
+        return length;
+    }
+
+    @Override
+    public int compress(byte[] input, int inputOffset, int inputLength, byte[] output, int outputOffset) {
+        System.arraycopy(input, inputOffset, output, outputOffset, inputLength);
+        return inputLength;
+    }
+
+    @Override
+    public void decompress(
+        byte[] input,
+        int inputOffset,
+        int inputLength,
+        byte[] output,
+        int outputOffset,
+        int outputLength
+    ) {
+        System.arraycopy(input, inputOffset, output, outputOffset, outputLength);
+    }
+}
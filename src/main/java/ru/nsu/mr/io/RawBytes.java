@@ -0,0 +1,46 @@
+package ru.nsu.mr.io;
+
+import ru.nsu.mr.BinaryDeserializer;
+import ru.nsu.mr.BinarySerializer;
+
+import java.nio.ByteBuffer;
+import java.util.function.UnaryOperator;
+
+public final class RawBytes {
+    public static final BinarySerializer<ByteBuffer> SERIALIZER = RawBytes::toArray;
+    public static final BinaryDeserializer<ByteBuffer> DESERIALIZER = RawBytes::copy;
+
+    private RawBytes() {
+    }
+
+    public static UnaryOperator<ByteBuffer> reusableCopy() {
+        return new UnaryOperator<>() {
+            private ByteBuffer copy = ByteBuffer.allocate(0);
+
+            @Override
+            public ByteBuffer apply(ByteBuffer bytes) {
+                int length = bytes.remaining();
+                if (copy.capacity() < length) {
+                    copy = ByteBuffer.allocate(Math.max(length, 2 * copy.capacity()));
+                }
+                return copy.clear().put(0, bytes, bytes.position(), length).limit(length);
+            }
+        };
+    }
+
+    private static byte[] toArray(ByteBuffer bytes) {
+        if (bytes.hasArray() && bytes.arrayOffset() == 0 && bytes.position() == 0
+            && bytes.remaining() == bytes.array().length) {
+            return bytes.array();
+        }
+        byte[] array = new byte[bytes.remaining()];
+        bytes.get(bytes.position(), array);
+        return array;
+    }
+
+    private static ByteBuffer copy(ByteBuffer bytes) {
+        byte[] array = new byte[bytes.remaining()];
+        bytes.get(bytes.position(), array);
+        return ByteBuffer.wrap(array);
+    }
+}
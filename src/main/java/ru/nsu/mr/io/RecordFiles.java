@@ -0,0 +1,41 @@
+package ru.nsu.mr.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+public final class RecordFiles {
+    private static final int MAGIC = 0x4D524246;
+    public static final int HEADER_SIZE = Integer.BYTES + 1;
+
+    private RecordFiles() {
+    }
+
+    public static void writeHeader(ByteBuffer output, CompressionCodec codec) {
+        output.putInt(MAGIC).put(codec.getId());
+    }
+
+    public static ByteInput openInput(Path path) throws IOException {
+        return openInput(new MappedFileReader(path, 0), path.toString());
+    }
+
+    public static ByteInput openInput(ByteBuffer records) throws IOException {
+        return openInput(new ByteBufferInput(records), "in-memory segment");
+    }
+
+    private static ByteInput openInput(ByteInput reader, String name) throws IOException {
+        try {
+            if (!reader.ensureAvailable(HEADER_SIZE) || reader.buffer().getInt() != MAGIC) {
+                throw new IOException("Not a record file: " + name);
+            }
+            CompressionCodec codec = CompressionCodecs.forId(reader.buffer().get());
+            if (codec == CompressionCodecs.NONE) {
+                return reader;
+            }
+            return new CompressedFileReader(reader, codec);
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+}
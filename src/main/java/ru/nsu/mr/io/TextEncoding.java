@@ -0,0 +1,84 @@
+package ru.nsu.mr.io;
+
+import java.nio.ByteBuffer;
+
+public final class TextEncoding {
+    private static final byte REPLACEMENT = '?';
+
+    private TextEncoding() {
+    }
+
+    public static int utf8Size(CharSequence text) {
+        int length = text.length();
+        int size = length;
+        for (int i = 0; i < length; ++i) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                size += 1;
+            } else if (isSurrogatePair(text, i)) {
+                size += 2;
+                ++i;
+            } else if (!Character.isSurrogate(c)) {
+                size += 2;
+            }
+        }
+        return size;
+    }
+
+    public static void writeUtf8(ByteBuffer output, CharSequence text) {
+        int length = text.length();
+        for (int i = 0; i < length; ++i) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                output.put((byte) c);
+            } else if (c < 0x800) {
+                output.put((byte) (0xC0 | (c >> 6)));
+                output.put((byte) (0x80 | (c & 0x3F)));
+            } else if (isSurrogatePair(text, i)) {
+                int codePoint = Character.toCodePoint(c, text.charAt(++i));
+                output.put((byte) (0xF0 | (codePoint >> 18)));
+                output.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                output.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                output.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                output.put(REPLACEMENT);
+            } else {
+                output.put((byte) (0xE0 | (c >> 12)));
+                output.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                output.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    private static boolean isSurrogatePair(CharSequence text, int index) {
+        return Character.isHighSurrogate(text.charAt(index))
+            && index + 1 < text.length()
+            && Character.isLowSurrogate(text.charAt(index + 1));
+    }
+
+    public static int decimalSize(long value) {
+        int size = value < 0 ? 2 : 1;
+        for (long rest = value < 0 ? value : -value; rest <= -10; rest /= 10) {
+            ++size;
+        }
+        return size;
+    }
+
+    public static void writeDecimal(ByteBuffer output, long value) {
+        int end = output.position() + decimalSize(value);
+        int position = end;
+        // Digits are taken from the negated value so that Long.MIN_VALUE does not overflow.
+        long rest = value < 0 ? value : -value;
+        do {
+            output.put(--position, (byte) ('0' - rest % 10));
+            rest /= 10;
+        } while (rest != 0);
+        if (value < 0) {
+            output.put(--position, (byte) '-');
+        }
+        output.position(end);
+    }
+}
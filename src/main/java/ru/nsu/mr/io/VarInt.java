@@ -0,0 +1,39 @@
+package ru.nsu.mr.io;
+
+import java.nio.ByteBuffer;
+
+public final class VarInt {
+    public static final int MAX_SIZE = 5;
+
+    private VarInt() {
+    }
+
+    public static int size(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            ++size;
+        }
+        return size;
+    }
+
+    public static void write(ByteBuffer output, int value) {
+        while ((value & ~0x7F) != 0) {
+            output.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        output.put((byte) value);
+    }
+
+    public static int read(ByteBuffer input) {
+        int value = 0;
+        for (int shift = 0; shift < 7 * MAX_SIZE; shift += 7) {
+            byte b = input.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+}
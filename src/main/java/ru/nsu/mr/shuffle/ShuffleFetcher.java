@@ -0,0 +1,124 @@
+package ru.nsu.mr.shuffle;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+public class ShuffleFetcher {
+    private static final int MAX_SEGMENT_MEMORY_SHARE = 4;
+
+    private final int parallelFetches;
+    private final long memoryLimit;
+    private final Path spillDirectory;
+    private long reservedMemory;
+
+    public ShuffleFetcher(int parallelFetches, long memoryLimit, Path spillDirectory) {
+        if (parallelFetches <= 0) {
+            throw new IllegalArgumentException("Parallel fetches count must be positive.");
+        }
+        this.parallelFetches = parallelFetches;
+        this.memoryLimit = memoryLimit;
+        this.spillDirectory = spillDirectory;
+    }
+
+    public List<ShuffleSegment> fetch(List<ShuffleLocation> locations) throws IOException {
+        List<ShuffleSegment> segments = new ArrayList<>(locations.size());
+        if (locations.isEmpty()) {
+            return segments;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelFetches, locations.size()));
+        List<Future<ShuffleSegment>> futures = new ArrayList<>(locations.size());
+        try {
+            for (int i = 0; i < locations.size(); ++i) {
+                int index = i;
+                futures.add(executor.submit(() -> fetch(locations.get(index), index)));
+            }
+            for (Future<ShuffleSegment> future : futures) {
+                segments.add(future.get());
+            }
+            return segments;
+        } catch (ExecutionException | InterruptedException | RuntimeException e) {
+            for (Future<ShuffleSegment> future : futures) {
+                future.cancel(true);
+            }
+            executor.shutdownNow();
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            if (e instanceof ExecutionException && e.getCause() instanceof IOException cause) {
+                throw cause;
+            }
+            throw new IOException("Shuffle fetch failed", e instanceof ExecutionException ? e.getCause() : e);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private ShuffleSegment fetch(ShuffleLocation location, int index) throws IOException {
+        try (SocketChannel channel = SocketChannel.open(new InetSocketAddress(location.host(), location.port()))) {
+            byte[] name = location.fileName().getBytes(StandardCharsets.UTF_8);
+            ShuffleServer.writeFully(channel, ByteBuffer.allocate(Integer.BYTES + name.length + 2 * Long.BYTES)
+                .putInt(name.length)
+                .put(name)
+                .putLong(0)
+                .putLong(ShuffleServer.TO_END)
+                .flip());
+
+            ByteBuffer header = ByteBuffer.allocate(Long.BYTES);
+            if (!ShuffleServer.readFully(channel, header)) {
+                throw new IOException("Shuffle server closed the connection: " + location);
+            }
+            long length = header.flip().getLong();
+            if (length == ShuffleServer.MISSING) {
+                throw new IOException("Shuffle partition not found: " + location);
+            }
+
+            if (reserveMemory(length)) {
+                ByteBuffer records = ByteBuffer.allocate((int) length);
+                if (length > 0 && !ShuffleServer.readFully(channel, records)) {
+                    throw new IOException("Truncated shuffle partition: " + location);
+                }
+                return ShuffleSegment.inMemory(location, records.flip());
+            }
+
+            Path file = Files.createTempFile(spillDirectory, "shuffle_" + index, ".bin");
+            try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                long received = 0;
+                while (received < length) {
+                    long transferred = fileChannel.transferFrom(channel, received, length - received);
+                    if (transferred == 0) {
+                        throw new IOException("Truncated shuffle partition: " + location);
+                    }
+                    received += transferred;
+                }
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+            return ShuffleSegment.onDisk(location, file, length);
+        }
+    }
+
+    private synchronized boolean reserveMemory(long length) {
+        if (length > Math.min(memoryLimit / MAX_SEGMENT_MEMORY_SHARE, Integer.MAX_VALUE)
+            || reservedMemory + length > memoryLimit) {
+            return false;
+        }
+        reservedMemory += length;
+        return true;
+    }
+
+    public synchronized long getReservedMemory() {
+        return reservedMemory;
+    }
+}
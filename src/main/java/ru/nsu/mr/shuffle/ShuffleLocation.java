@@ -0,0 +1,6 @@
+package ru.nsu.mr.shuffle;
+
+import java.io.Serializable;
+
+public record ShuffleLocation(String host, int port, String fileName) implements Serializable {
+}
@@ -0,0 +1,31 @@
+package ru.nsu.mr.shuffle;
+
+import ru.nsu.mr.BinaryDeserializer;
+import ru.nsu.mr.sources.BinaryKeyValueFileIterator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+public record ShuffleSegment(ShuffleLocation location, ByteBuffer records, Path file, long size) {
+    public static ShuffleSegment inMemory(ShuffleLocation location, ByteBuffer records) {
+        return new ShuffleSegment(location, records, null, records.remaining());
+    }
+
+    public static ShuffleSegment onDisk(ShuffleLocation location, Path file, long size) {
+        return new ShuffleSegment(location, null, file, size);
+    }
+
+    public boolean isInMemory() {
+        return records != null;
+    }
+
+    public <K, V> BinaryKeyValueFileIterator<K, V> open(
+        BinaryDeserializer<K> keyDeserializer,
+        BinaryDeserializer<V> valueDeserializer
+    ) throws IOException {
+        return isInMemory()
+            ? new BinaryKeyValueFileIterator<>(records.duplicate(), keyDeserializer, valueDeserializer)
+            : new BinaryKeyValueFileIterator<>(file, keyDeserializer, valueDeserializer);
+    }
+}
@@ -0,0 +1,133 @@
+package ru.nsu.mr.shuffle;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class ShuffleServer implements AutoCloseable {
+    static final long MISSING = -1;
+    static final long TO_END = -1;
+
+    private final Path directory;
+    private final ServerSocketChannel serverChannel;
+    private final ExecutorService connections;
+
+    public ShuffleServer(Path directory) throws IOException {
+        this.directory = directory.toAbsolutePath().normalize();
+        this.serverChannel = ServerSocketChannel.open()
+            .bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        this.connections = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "shuffle-server");
+            thread.setDaemon(true);
+            return thread;
+        });
+        connections.execute(this::acceptConnections);
+    }
+
+    public ShuffleLocation locate(Path file) {
+        InetSocketAddress address = getAddress();
+        return new ShuffleLocation(
+            address.getAddress().getHostAddress(),
+            address.getPort(),
+            directory.relativize(file.toAbsolutePath().normalize()).toString()
+        );
+    }
+
+    public InetSocketAddress getAddress() {
+        try {
+            return (InetSocketAddress) serverChannel.getLocalAddress();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void acceptConnections() {
+        while (serverChannel.isOpen()) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                connections.execute(() -> serve(channel));
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                if (!serverChannel.isOpen()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void serve(SocketChannel channel) {
+        try (channel) {
+            ByteBuffer header = ByteBuffer.allocate(Integer.BYTES);
+            while (readFully(channel, header.clear())) {
+                ByteBuffer request = ByteBuffer.allocate(header.flip().getInt() + 2 * Long.BYTES);
+                if (!readFully(channel, request)) {
+                    throw new EOFException("Truncated shuffle request");
+                }
+                request.flip();
+                byte[] name = new byte[request.remaining() - 2 * Long.BYTES];
+                request.get(name);
+                sendRange(channel, resolve(new String(name, StandardCharsets.UTF_8)), request.getLong(), request.getLong());
+            }
+        } catch (IOException e) {
+            // The fetcher sees a broken connection and fails the fetch.
+        }
+    }
+
+    private Path resolve(String fileName) {
+        Path file = directory.resolve(fileName).normalize();
+        return file.startsWith(directory) && Files.isRegularFile(file) ? file : null;
+    }
+
+    private static void sendRange(SocketChannel channel, Path file, long offset, long length) throws IOException {
+        if (file == null) {
+            writeFully(channel, ByteBuffer.allocate(Long.BYTES).putLong(MISSING).flip());
+            return;
+        }
+        try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long start = Math.min(offset, fileChannel.size());
+            long count = length == TO_END ? fileChannel.size() - start : Math.min(length, fileChannel.size() - start);
+            writeFully(channel, ByteBuffer.allocate(Long.BYTES).putLong(count).flip());
+            long sent = 0;
+            while (sent < count) {
+                sent += fileChannel.transferTo(start + sent, count - sent, channel);
+            }
+        }
+    }
+
+    static boolean readFully(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                if (buffer.position() == 0) {
+                    return false;
+                }
+                throw new EOFException("Connection closed mid-message");
+            }
+        }
+        return true;
+    }
+
+    static void writeFully(SocketChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverChannel.close();
+        connections.shutdownNow();
+    }
+}
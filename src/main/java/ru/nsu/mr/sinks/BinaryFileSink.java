@@ -0,0 +1,153 @@
+package ru.nsu.mr.sinks;
+
+import ru.nsu.mr.BinarySerializer;
+import ru.nsu.mr.PredefinedFunctions;
+import ru.nsu.mr.io.AsyncFileWriter;
+import ru.nsu.mr.io.CompressionCodec;
+import ru.nsu.mr.io.CompressionCodecs;
+import ru.nsu.mr.io.RecordFiles;
+import ru.nsu.mr.io.VarInt;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class BinaryFileSink<K, V> implements FileSystemSink<K, V> {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final BinarySerializer<K> keySerializer;
+    private final BinarySerializer<V> valueSerializer;
+    private final WritableByteChannel channel;
+    private final CompressionCodec codec;
+    private ByteBuffer buffer;
+    private byte[] compressedBlock = new byte[0];
+
+    public BinaryFileSink(
+        BinarySerializer<K> keySerializer,
+        BinarySerializer<V> valueSerializer,
+        Path outputPath
+    ) throws IOException
+    {
+        this(keySerializer, valueSerializer, outputPath, CompressionCodecs.NONE);
+    }
+
+    public BinaryFileSink(
+        BinarySerializer<K> keySerializer,
+        BinarySerializer<V> valueSerializer,
+        Path outputPath,
+        CompressionCodec codec
+    ) throws IOException
+    {
+        this(keySerializer, valueSerializer, outputPath, codec, 0);
+    }
+
+    public BinaryFileSink(
+        BinarySerializer<K> keySerializer,
+        BinarySerializer<V> valueSerializer,
+        Path outputPath,
+        CompressionCodec codec,
+        int asyncBufferSize
+    ) throws IOException
+    {
+        this.keySerializer = keySerializer;
+        this.valueSerializer = valueSerializer;
+        this.codec = codec;
+        FileChannel fileChannel = FileChannel.open(outputPath,
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.channel = asyncBufferSize > 0 ? new AsyncFileWriter(fileChannel, asyncBufferSize) : fileChannel;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        RecordFiles.writeHeader(buffer, codec);
+        if (codec != CompressionCodecs.NONE) {
+            writeFully(buffer.flip());
+            buffer.clear();
+        }
+    }
+
+    @Override
+    public void put(K key, V value) throws IOException {
+        byte[] keyBytes = keySerializer.serialize(key);
+        byte[] valueBytes = valueSerializer.serialize(value);
+        reserve(VarInt.size(keyBytes.length) + keyBytes.length + VarInt.size(valueBytes.length) + valueBytes.length);
+        VarInt.write(buffer, keyBytes.length);
+        buffer.put(keyBytes);
+        VarInt.write(buffer, valueBytes.length);
+        buffer.put(valueBytes);
+    }
+
+    @Override
+    public void putInt(K key, int value) throws IOException {
+        if (valueSerializer != PredefinedFunctions.INTEGER_BINARY_SERIALIZER) {
+            FileSystemSink.super.putInt(key, value);
+            return;
+        }
+        byte[] keyBytes = keySerializer.serialize(key);
+        reserve(VarInt.size(keyBytes.length) + keyBytes.length + 1 + Integer.BYTES);
+        VarInt.write(buffer, keyBytes.length);
+        buffer.put(keyBytes);
+        buffer.put((byte) Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    @Override
+    public void putLong(K key, long value) throws IOException {
+        if (valueSerializer != PredefinedFunctions.LONG_BINARY_SERIALIZER) {
+            FileSystemSink.super.putLong(key, value);
+            return;
+        }
+        byte[] keyBytes = keySerializer.serialize(key);
+        reserve(VarInt.size(keyBytes.length) + keyBytes.length + 1 + Long.BYTES);
+        VarInt.write(buffer, keyBytes.length);
+        buffer.put(keyBytes);
+        buffer.put((byte) Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    private void reserve(int recordSize) throws IOException {
+        if (buffer.remaining() < recordSize) {
+            flush();
+            if (buffer.capacity() < recordSize) {
+                buffer = ByteBuffer.allocate(recordSize);
+            }
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        if (codec == CompressionCodecs.NONE) {
+            writeFully(buffer);
+        } else if (buffer.hasRemaining()) {
+            writeFully(compressBlock());
+        }
+        buffer.clear();
+    }
+
+    private ByteBuffer compressBlock() {
+        int rawLength = buffer.remaining();
+        int maxBlockSize = 2 * Integer.BYTES + codec.maxCompressedLength(rawLength);
+        if (compressedBlock.length < maxBlockSize) {
+            compressedBlock = new byte[maxBlockSize];
+        }
+        int compressedLength = codec.compress(buffer.array(), 0, rawLength, compressedBlock, 2 * Integer.BYTES);
+        return ByteBuffer.wrap(compressedBlock, 0, 2 * Integer.BYTES + compressedLength)
+            .putInt(0, rawLength)
+            .putInt(Integer.BYTES, compressedLength);
+    }
+
+    private void writeFully(ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            channel.write(data);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
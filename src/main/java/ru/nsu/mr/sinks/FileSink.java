@@ -1,38 +1,88 @@
 package ru.nsu.mr.sinks;
 
 import ru.nsu.mr.Serializer;
+import ru.nsu.mr.io.AsyncFileWriter;
 
-import java.io.BufferedWriter;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 
 public class FileSink<K, V> implements FileSystemSink<K, V> {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final byte SEPARATOR = ' ';
+    private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
     private final Serializer<K> keySerializer;
     private final Serializer<V> valueSerializer;
-    private final BufferedWriter writer;
+    private final WritableByteChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
 
     public FileSink(
         Serializer<K> keySerializer,
         Serializer<V> valueSerializer,
         Path outputPath
     ) throws IOException
+    {
+        this(keySerializer, valueSerializer, outputPath, 0);
+    }
+
+    public FileSink(
+        Serializer<K> keySerializer,
+        Serializer<V> valueSerializer,
+        Path outputPath,
+        int asyncBufferSize
+    ) throws IOException
     {
         this.keySerializer = keySerializer;
         this.valueSerializer = valueSerializer;
-        this.writer = Files.newBufferedWriter(outputPath);
+        FileChannel fileChannel = FileChannel.open(outputPath,
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        this.channel = asyncBufferSize > 0 ? new AsyncFileWriter(fileChannel, asyncBufferSize) : fileChannel;
     }
 
     @Override
     public void put(K key, V value) throws IOException {
-        String keyString = keySerializer.serialize(key);
-        String valueString = valueSerializer.serialize(value);
-        writer.write(keyString + " " + valueString);
-        writer.newLine();
+        int recordStart = buffer.position();
+        if (encode(key, value)) {
+            return;
+        }
+        buffer.position(recordStart);
+        flush();
+        while (!encode(key, value)) {
+            buffer = ByteBuffer.allocateDirect(2 * buffer.capacity());
+        }
+    }
+
+    private boolean encode(K key, V value) {
+        if (!keySerializer.encodeTo(key, buffer) || !buffer.hasRemaining()) {
+            return false;
+        }
+        buffer.put(SEPARATOR);
+        if (!valueSerializer.encodeTo(value, buffer) || buffer.remaining() < LINE_SEPARATOR.length) {
+            return false;
+        }
+        buffer.put(LINE_SEPARATOR);
+        return true;
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
     }
 
     @Override
     public void close() throws IOException {
-        writer.close();
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
     }
 }
@@ -5,6 +5,16 @@ import java.io.IOException;
 public interface FileSystemSink<K, V> extends AutoCloseable {
     void put(K key, V value) throws IOException;
 
+    @SuppressWarnings("unchecked")
+    default void putInt(K key, int value) throws IOException {
+        put(key, (V) (Integer) value);
+    }
+
+    @SuppressWarnings("unchecked")
+    default void putLong(K key, long value) throws IOException {
+        put(key, (V) (Long) value);
+    }
+
     @Override
     void close() throws IOException;
 }
\ No newline at end of file
@@ -1,20 +1,26 @@
 package ru.nsu.mr.sinks;
 
+import ru.nsu.mr.HashPartitioner;
 import ru.nsu.mr.KeyHasher;
+import ru.nsu.mr.Partitioner;
 
 import java.io.IOException;
 import java.util.List;
 
 public class PartitionedFileSink<K, V> implements FileSystemSink<K, V> {
     private final List<FileSystemSink<K, V>> sinks;
-    private final KeyHasher<K> hasher;
+    private final Partitioner<K> partitioner;
 
     public PartitionedFileSink(List<FileSystemSink<K, V>> sinks, KeyHasher<K> hasher) {
+        this(sinks, new HashPartitioner<>(hasher));
+    }
+
+    public PartitionedFileSink(List<FileSystemSink<K, V>> sinks, Partitioner<K> partitioner) {
         if (sinks == null || sinks.isEmpty()) {
             throw new IllegalArgumentException("Sink list cannot be null or empty.");
         }
         this.sinks = sinks;
-        this.hasher = hasher;
+        this.partitioner = partitioner;
     }
 
     @Override
@@ -22,6 +28,16 @@ public class PartitionedFileSink<K, V> implements FileSystemSink<K, V> {
         sinks.get(getSinkToPutIndex(key)).put(key, value);
     }
 
+    @Override
+    public void putInt(K key, int value) throws IOException {
+        sinks.get(getSinkToPutIndex(key)).putInt(key, value);
+    }
+
+    @Override
+    public void putLong(K key, long value) throws IOException {
+        sinks.get(getSinkToPutIndex(key)).putLong(key, value);
+    }
+
     @Override
     public void close() throws IOException {
         for (FileSystemSink<K, V> sink : sinks) {
@@ -30,7 +46,6 @@ public class PartitionedFileSink<K, V> implements FileSystemSink<K, V> {
     }
 
     private int getSinkToPutIndex(K key) {
-        int hash = hasher.hash(key);
-        return (hash % sinks.size() + sinks.size()) % sinks.size();
+        return partitioner.getPartition(key, sinks.size());
     }
 }
@@ -0,0 +1,67 @@
+package ru.nsu.mr.sinks;
+
+import ru.nsu.mr.KeyHasher;
+import ru.nsu.mr.Partitioner;
+import ru.nsu.mr.SizeEstimator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class PartitionedSortedFileSink<K, V> extends PartitionedFileSink<K, V> {
+    private final List<SortedFileSink<K, V>> sinks;
+    private final SpillBudget<K, V> spillBudget;
+
+    public PartitionedSortedFileSink(List<SortedFileSink<K, V>> sinks, KeyHasher<K> hasher, int bufferSize) {
+        super(new ArrayList<>(sinks), hasher);
+        this.sinks = sinks;
+        this.spillBudget = new SpillBudget<>(bufferSize);
+    }
+
+    public PartitionedSortedFileSink(List<SortedFileSink<K, V>> sinks, Partitioner<K> partitioner, int bufferSize) {
+        super(new ArrayList<>(sinks), partitioner);
+        this.sinks = sinks;
+        this.spillBudget = new SpillBudget<>(bufferSize);
+    }
+
+    public PartitionedSortedFileSink<K, V> setMemoryBudget(long maxBytes, SizeEstimator<K, V> sizeEstimator) {
+        spillBudget.setMaxBytes(maxBytes, sizeEstimator);
+        return this;
+    }
+
+    public PartitionedSortedFileSink<K, V> setHeapSpillThreshold(double heapThreshold, int minRecords) {
+        spillBudget.setHeapThreshold(heapThreshold, minRecords);
+        return this;
+    }
+
+    @Override
+    public void put(K key, V value) throws IOException {
+        super.put(key, value);
+        if (spillBudget.add(key, value)) {
+            spill();
+        }
+    }
+
+    @Override
+    public void putInt(K key, int value) throws IOException {
+        super.putInt(key, value);
+        if (spillBudget.addInt(key, value)) {
+            spill();
+        }
+    }
+
+    @Override
+    public void putLong(K key, long value) throws IOException {
+        super.putLong(key, value);
+        if (spillBudget.addLong(key, value)) {
+            spill();
+        }
+    }
+
+    private void spill() throws IOException {
+        for (SortedFileSink<K, V> sink : sinks) {
+            sink.flushBuffer();
+        }
+        spillBudget.reset();
+    }
+}
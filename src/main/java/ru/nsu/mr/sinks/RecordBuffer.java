@@ -0,0 +1,259 @@
+package ru.nsu.mr.sinks;
+
+import ru.nsu.mr.BinarySerializer;
+import ru.nsu.mr.Pair;
+import ru.nsu.mr.PredefinedFunctions;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+abstract class RecordBuffer<K, V> {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    private Object[] keys = new Object[INITIAL_CAPACITY];
+    private int[] order = new int[INITIAL_CAPACITY];
+    private int[] sortBuffer = new int[INITIAL_CAPACITY];
+    private int size;
+
+    static <K, V> RecordBuffer<K, V> forValues(BinarySerializer<V> valueSerializer) {
+        if (valueSerializer == PredefinedFunctions.INTEGER_BINARY_SERIALIZER) {
+            return new IntValues<>();
+        }
+        if (valueSerializer == PredefinedFunctions.LONG_BINARY_SERIALIZER) {
+            return new LongValues<>();
+        }
+        return new ObjectValues<>();
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void add(K key, V value) {
+        setValue(append(key), value);
+    }
+
+    void addInt(K key, int value) {
+        setInt(append(key), value);
+    }
+
+    void addLong(K key, long value) {
+        setLong(append(key), value);
+    }
+
+    private int append(K key) {
+        if (size == keys.length) {
+            int capacity = 2 * keys.length;
+            keys = Arrays.copyOf(keys, capacity);
+            order = Arrays.copyOf(order, capacity);
+            sortBuffer = new int[capacity];
+            growValues(capacity);
+        }
+        order[size] = size;
+        keys[size] = key;
+        return size++;
+    }
+
+    void clear() {
+        Arrays.fill(keys, 0, size, null);
+        clearValues(size);
+        size = 0;
+    }
+
+    void sort(Comparator<? super K> comparator) {
+        for (int i = 0; i < size; ++i) {
+            order[i] = i;
+        }
+        mergeSort(0, size, comparator);
+    }
+
+    private void mergeSort(int from, int to, Comparator<? super K> comparator) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(from, to, comparator);
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(from, middle, comparator);
+        mergeSort(middle, to, comparator);
+        if (compare(order[middle - 1], order[middle], comparator) <= 0) {
+            return;
+        }
+        System.arraycopy(order, from, sortBuffer, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; ++i) {
+            if (right >= to || (left < middle && compare(sortBuffer[left], sortBuffer[right], comparator) <= 0)) {
+                order[i] = sortBuffer[left++];
+            } else {
+                order[i] = sortBuffer[right++];
+            }
+        }
+    }
+
+    private void insertionSort(int from, int to, Comparator<? super K> comparator) {
+        for (int i = from + 1; i < to; ++i) {
+            int current = order[i];
+            int j = i - 1;
+            while (j >= from && compare(order[j], current, comparator) > 0) {
+                order[j + 1] = order[j];
+                --j;
+            }
+            order[j + 1] = current;
+        }
+    }
+
+    private int compare(int first, int second, Comparator<? super K> comparator) {
+        return comparator.compare(key(first), key(second));
+    }
+
+    @SuppressWarnings("unchecked")
+    private K key(int index) {
+        return (K) keys[index];
+    }
+
+    Iterator<Pair<K, V>> iterator() {
+        return new Iterator<>() {
+            private int position;
+
+            @Override
+            public boolean hasNext() {
+                return position < size;
+            }
+
+            @Override
+            public Pair<K, V> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int index = order[position++];
+                return new Pair<>(key(index), value(index));
+            }
+        };
+    }
+
+    void writeTo(FileSystemSink<K, V> sink) throws IOException {
+        for (int position = 0; position < size; ++position) {
+            int index = order[position];
+            write(sink, key(index), index);
+        }
+    }
+
+    abstract V value(int index);
+
+    abstract void setValue(int index, V value);
+
+    @SuppressWarnings("unchecked")
+    void setInt(int index, int value) {
+        setValue(index, (V) (Integer) value);
+    }
+
+    @SuppressWarnings("unchecked")
+    void setLong(int index, long value) {
+        setValue(index, (V) (Long) value);
+    }
+
+    abstract void growValues(int capacity);
+
+    void clearValues(int size) {
+    }
+
+    abstract void write(FileSystemSink<K, V> sink, K key, int index) throws IOException;
+
+    private static final class ObjectValues<K, V> extends RecordBuffer<K, V> {
+        private Object[] values = new Object[INITIAL_CAPACITY];
+
+        @Override
+        @SuppressWarnings("unchecked")
+        V value(int index) {
+            return (V) values[index];
+        }
+
+        @Override
+        void setValue(int index, V value) {
+            values[index] = value;
+        }
+
+        @Override
+        void growValues(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        void clearValues(int size) {
+            Arrays.fill(values, 0, size, null);
+        }
+
+        @Override
+        void write(FileSystemSink<K, V> sink, K key, int index) throws IOException {
+            sink.put(key, value(index));
+        }
+    }
+
+    private static final class IntValues<K, V> extends RecordBuffer<K, V> {
+        private int[] values = new int[INITIAL_CAPACITY];
+
+        @Override
+        @SuppressWarnings("unchecked")
+        V value(int index) {
+            return (V) (Integer) values[index];
+        }
+
+        @Override
+        void setValue(int index, V value) {
+            values[index] = (Integer) value;
+        }
+
+        @Override
+        void setInt(int index, int value) {
+            values[index] = value;
+        }
+
+        @Override
+        void growValues(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        void write(FileSystemSink<K, V> sink, K key, int index) throws IOException {
+            sink.putInt(key, values[index]);
+        }
+    }
+
+    private static final class LongValues<K, V> extends RecordBuffer<K, V> {
+        private long[] values = new long[INITIAL_CAPACITY];
+
+        @Override
+        @SuppressWarnings("unchecked")
+        V value(int index) {
+            return (V) (Long) values[index];
+        }
+
+        @Override
+        void setValue(int index, V value) {
+            values[index] = (Long) value;
+        }
+
+        @Override
+        void setLong(int index, long value) {
+            values[index] = value;
+        }
+
+        @Override
+        void growValues(int capacity) {
+            values = Arrays.copyOf(values, capacity);
+        }
+
+        @Override
+        void write(FileSystemSink<K, V> sink, K key, int index) throws IOException {
+            sink.putLong(key, values[index]);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package ru.nsu.mr.sinks;
+
+import ru.nsu.mr.BinaryDeserializer;
+import ru.nsu.mr.BinarySerializer;
+import ru.nsu.mr.KeyValue;
+import ru.nsu.mr.Pair;
+import ru.nsu.mr.RawComparator;
+import ru.nsu.mr.io.CompressionCodec;
+import ru.nsu.mr.io.RawBytes;
+import ru.nsu.mr.sources.AutoCloseableSource;
+import ru.nsu.mr.sources.BinaryKeyValueFileIterator;
+import ru.nsu.mr.sources.MergedKeyValueIterator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+public class RunMerger<K, V> {
+    private final BinarySerializer<K> keySerializer;
+    private final BinarySerializer<V> valueSerializer;
+    private final BinaryDeserializer<K> keyDeserializer;
+    private final BinaryDeserializer<V> valueDeserializer;
+    private final Comparator<K> comparator;
+    private final int mergeFactor;
+    private final CompressionCodec codec;
+    private int asyncBufferSize;
+    private boolean reuseRecords;
+    private int mergePasses;
+
+    public RunMerger(
+        BinarySerializer<K> keySerializer,
+        BinarySerializer<V> valueSerializer,
+        BinaryDeserializer<K> keyDeserializer,
+        BinaryDeserializer<V> valueDeserializer,
+        Comparator<K> comparator,
+        int mergeFactor,
+        CompressionCodec codec
+    ) {
+        if (mergeFactor < 2) {
+            throw new IllegalArgumentException("Merge factor must be at least 2.");
+        }
+        this.keySerializer = keySerializer;
+        this.valueSerializer = valueSerializer;
+        this.keyDeserializer = keyDeserializer;
+        this.valueDeserializer = valueDeserializer;
+        this.comparator = comparator;
+        this.mergeFactor = mergeFactor;
+        this.codec = codec;
+    }
+
+    public static RunMerger<ByteBuffer, ByteBuffer> raw(
+        RawComparator<?> rawComparator,
+        int mergeFactor,
+        CompressionCodec codec
+    ) {
+        return new RunMerger<>(RawBytes.SERIALIZER, RawBytes.SERIALIZER, RawBytes.DESERIALIZER, RawBytes.DESERIALIZER,
+            rawComparator::compare, mergeFactor, codec);
+    }
+
+    public RunMerger<K, V> setAsyncBufferSize(int asyncBufferSize) {
+        this.asyncBufferSize = asyncBufferSize;
+        return this;
+    }
+
+    public RunMerger<K, V> setReuseRecords(boolean reuseRecords) {
+        this.reuseRecords = reuseRecords;
+        return this;
+    }
+
+    public List<Integer> planPasses(int runsCount, int reservedInputs) {
+        int finalFanIn = Math.max(1, mergeFactor - reservedInputs);
+        List<Integer> passFanIns = new ArrayList<>();
+        if (runsCount <= finalFanIn) {
+            return passFanIns;
+        }
+        // The first pass takes just enough runs for every later pass to be a full one.
+        int remainder = (runsCount - finalFanIn) % (mergeFactor - 1);
+        int passFanIn = remainder == 0 ? mergeFactor : remainder + 1;
+        for (int remainingRuns = runsCount; remainingRuns > finalFanIn; remainingRuns -= passFanIn - 1) {
+            passFanIns.add(passFanIn);
+            passFanIn = mergeFactor;
+        }
+        return passFanIns;
+    }
+
+    public List<Path> reduceRuns(List<Path> runs, int reservedInputs, Path tempDirectory) throws IOException {
+        List<Integer> passFanIns = planPasses(runs.size(), reservedInputs);
+        if (passFanIns.isEmpty()) {
+            return runs;
+        }
+
+        Set<Path> createdRuns = new HashSet<>();
+        PriorityQueue<Pair<Long, Path>> runsBySize = new PriorityQueue<>(Comparator.comparing(Pair::key));
+        for (Path run : runs) {
+            runsBySize.add(new Pair<>(Files.size(run), run));
+        }
+
+        try {
+            for (int passFanIn : passFanIns) {
+                List<Path> passRuns = new ArrayList<>(passFanIn);
+                for (int i = 0; i < passFanIn; ++i) {
+                    passRuns.add(runsBySize.poll().value());
+                }
+                Path mergedRun = Files.createTempFile(tempDirectory, "merge_" + createdRuns.size(), ".bin");
+                createdRuns.add(mergedRun);
+                mergeInto(passRuns, mergedRun);
+                for (Path passRun : passRuns) {
+                    if (createdRuns.remove(passRun)) {
+                        Files.delete(passRun);
+                    }
+                }
+                runsBySize.add(new Pair<>(Files.size(mergedRun), mergedRun));
+            }
+        } catch (IOException | RuntimeException e) {
+            for (Path createdRun : createdRuns) {
+                Files.deleteIfExists(createdRun);
+            }
+            throw e;
+        }
+
+        List<Path> remainingRuns = new ArrayList<>(runsBySize.size());
+        for (Pair<Long, Path> run : runsBySize) {
+            remainingRuns.add(run.value());
+        }
+        return remainingRuns;
+    }
+
+    public Path mergeRuns(List<Path> runs, Path tempDirectory) throws IOException {
+        Path mergedRun = Files.createTempFile(tempDirectory, "merge_", ".bin");
+        try {
+            mergeInto(runs, mergedRun);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(mergedRun);
+            throw e;
+        }
+        return mergedRun;
+    }
+
+    public int getMergePasses() {
+        return mergePasses;
+    }
+
+    private void mergeInto(List<Path> runs, Path output) throws IOException {
+        ++mergePasses;
+        List<Iterator<Pair<K, V>>> runIterators = new ArrayList<>(runs.size());
+        try {
+            for (Path run : runs) {
+                BinaryKeyValueFileIterator<K, V> runIterator =
+                    new BinaryKeyValueFileIterator<>(run, keyDeserializer, valueDeserializer);
+                runIterators.add(reuseRecords ? runIterator.reuseRecords() : runIterator);
+            }
+        } catch (IOException | RuntimeException e) {
+            AutoCloseableSource.closeAfterFailure(runIterators, e);
+            throw e;
+        }
+        try (MergedKeyValueIterator<K, V> merged = new MergedKeyValueIterator<>(runIterators, comparator);
+             BinaryFileSink<K, V> sink = new BinaryFileSink<>(keySerializer, valueSerializer, output, codec, asyncBufferSize)) {
+            while (merged.hasNext()) {
+                KeyValue<K, V> record = merged.nextRecord();
+                sink.put(record.key(), record.value());
+            }
+        }
+    }
+}
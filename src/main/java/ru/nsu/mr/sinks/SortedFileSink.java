@@ -1,12 +1,25 @@
 package ru.nsu.mr.sinks;
 
-import ru.nsu.mr.Deserializer;
+import ru.nsu.mr.BinaryDeserializer;
+import ru.nsu.mr.BinarySerializer;
+import ru.nsu.mr.Combiner;
+import ru.nsu.mr.Counters;
+import ru.nsu.mr.OutputContext;
+import ru.nsu.mr.KeyValue;
 import ru.nsu.mr.Pair;
-import ru.nsu.mr.Serializer;
-import ru.nsu.mr.sources.KeyValueFileIterator;
+import ru.nsu.mr.RawComparator;
+import ru.nsu.mr.SizeEstimator;
+import ru.nsu.mr.io.CompressionCodec;
+import ru.nsu.mr.io.CompressionCodecs;
+import ru.nsu.mr.io.RawBytes;
+import ru.nsu.mr.sources.AutoCloseableSource;
+import ru.nsu.mr.sources.BinaryKeyValueFileIterator;
+import ru.nsu.mr.sources.GroupedKeyValuesIterator;
 import ru.nsu.mr.sources.MergedKeyValueIterator;
+import ru.nsu.mr.sources.RecordIterator;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -15,81 +28,323 @@ import java.util.Iterator;
 import java.util.List;
 
 public class SortedFileSink<K, V> implements FileSystemSink<K, V> {
-    private final Serializer<K> keySerializer;
-    private final Serializer<V> valueSerializer;
-    private final Deserializer<K> keyDeserializer;
-    private final Deserializer<V> valueDeserializer;
+    private static final int DEFAULT_MERGE_FACTOR = 64;
+
+    private final BinarySerializer<K> keySerializer;
+    private final BinarySerializer<V> valueSerializer;
+    private final BinaryDeserializer<K> keyDeserializer;
+    private final BinaryDeserializer<V> valueDeserializer;
     private final Comparator<K> comparator;
-    private final List<Pair<K, V>> buffer;
-    private final int bufferSize;
+    private final Combiner<K, V> combiner;
+    private final CompressionCodec codec;
+    private final RawComparator<K> rawComparator;
+    private final RunMerger<?, ?> runMerger;
+    private final RecordBuffer<K, V> buffer;
+    private final SpillBudget<K, V> spillBudget;
     private final Path outputPath;
     private final List<Path> dumps;
+    private Counters counters = new Counters();
+    private int asyncBufferSize;
+    private boolean reuseRecords;
+    private long spilledRecords;
+    private long spilledBytes;
+    private long sortNanos;
+    private long mergeNanos;
+    private int mergePasses;
 
     public SortedFileSink(
-        Serializer<K> keySerializer,
-        Serializer<V> valueSerializer,
-        Deserializer<K> keyDeserializer,
-        Deserializer<V> valueDeserializer,
+        BinarySerializer<K> keySerializer,
+        BinarySerializer<V> valueSerializer,
+        BinaryDeserializer<K> keyDeserializer,
+        BinaryDeserializer<V> valueDeserializer,
         Path outputPath,
         int bufferSize,
         Comparator<K> comparator
+    ) {
+        this(keySerializer, valueSerializer, keyDeserializer, valueDeserializer, outputPath, bufferSize, comparator, null);
+    }
+
+    public SortedFileSink(
+        BinarySerializer<K> keySerializer,
+        BinarySerializer<V> valueSerializer,
+        BinaryDeserializer<K> keyDeserializer,
+        BinaryDeserializer<V> valueDeserializer,
+        Path outputPath,
+        int bufferSize,
+        Comparator<K> comparator,
+        Combiner<K, V> combiner
+    ) {
+        this(keySerializer, valueSerializer, keyDeserializer, valueDeserializer, outputPath, bufferSize, comparator,
+            combiner, CompressionCodecs.NONE, DEFAULT_MERGE_FACTOR);
+    }
+
+    public SortedFileSink(
+        BinarySerializer<K> keySerializer,
+        BinarySerializer<V> valueSerializer,
+        BinaryDeserializer<K> keyDeserializer,
+        BinaryDeserializer<V> valueDeserializer,
+        Path outputPath,
+        int bufferSize,
+        Comparator<K> comparator,
+        Combiner<K, V> combiner,
+        CompressionCodec codec,
+        int mergeFactor
+    ) {
+        this(keySerializer, valueSerializer, keyDeserializer, valueDeserializer, outputPath, bufferSize, comparator,
+            combiner, codec, mergeFactor, null);
+    }
+
+    public SortedFileSink(
+        BinarySerializer<K> keySerializer,
+        BinarySerializer<V> valueSerializer,
+        BinaryDeserializer<K> keyDeserializer,
+        BinaryDeserializer<V> valueDeserializer,
+        Path outputPath,
+        int bufferSize,
+        Comparator<K> comparator,
+        Combiner<K, V> combiner,
+        CompressionCodec codec,
+        int mergeFactor,
+        RawComparator<K> rawComparator
     ) {
         this.keySerializer = keySerializer;
         this.valueSerializer = valueSerializer;
         this.keyDeserializer = keyDeserializer;
         this.valueDeserializer = valueDeserializer;
         this.outputPath = outputPath;
-        this.buffer = new ArrayList<>();
-        this.bufferSize = bufferSize;
+        this.buffer = RecordBuffer.forValues(valueSerializer);
+        this.spillBudget = new SpillBudget<>(bufferSize);
         this.comparator = comparator;
+        this.combiner = combiner;
+        this.codec = codec;
+        this.rawComparator = rawComparator;
+        this.runMerger = rawComparator != null
+            ? RunMerger.raw(rawComparator, mergeFactor, codec)
+            : new RunMerger<>(keySerializer, valueSerializer, keyDeserializer, valueDeserializer, comparator, mergeFactor, codec);
         this.dumps = new ArrayList<>();
     }
 
+    public SortedFileSink<K, V> setAsyncBufferSize(int asyncBufferSize) {
+        this.asyncBufferSize = asyncBufferSize;
+        runMerger.setAsyncBufferSize(asyncBufferSize);
+        return this;
+    }
+
+    public SortedFileSink<K, V> setReuseRecords(boolean reuseRecords) {
+        this.reuseRecords = reuseRecords;
+        runMerger.setReuseRecords(reuseRecords);
+        return this;
+    }
+
+    public SortedFileSink<K, V> setCounters(Counters counters) {
+        this.counters = counters;
+        return this;
+    }
+
+    public SortedFileSink<K, V> setMemoryBudget(long maxBytes, SizeEstimator<K, V> sizeEstimator) {
+        spillBudget.setMaxBytes(maxBytes, sizeEstimator);
+        return this;
+    }
+
+    public SortedFileSink<K, V> setHeapSpillThreshold(double heapThreshold, int minRecords) {
+        spillBudget.setHeapThreshold(heapThreshold, minRecords);
+        return this;
+    }
+
     @Override
     public void put(K key, V value) throws IOException {
-        buffer.add(new Pair<>(key, value));
-        if (buffer.size() >= bufferSize) {
+        buffer.add(key, value);
+        if (spillBudget.add(key, value)) {
             flushBuffer();
         }
     }
 
-    private void flushBuffer() throws IOException {
+    @Override
+    public void putInt(K key, int value) throws IOException {
+        buffer.addInt(key, value);
+        if (spillBudget.addInt(key, value)) {
+            flushBuffer();
+        }
+    }
+
+    @Override
+    public void putLong(K key, long value) throws IOException {
+        buffer.addLong(key, value);
+        if (spillBudget.addLong(key, value)) {
+            flushBuffer();
+        }
+    }
+
+    void flushBuffer() throws IOException {
+        spillBudget.reset();
         if (buffer.isEmpty()) {
             return;
         }
-        buffer.sort(Comparator.comparing(Pair::key, comparator));
-        dumps.add(Files.createTempFile("dump_" + dumps.size(), ".txt"));
-        try (FileSink<K, V> tempSink = new FileSink<>(keySerializer, valueSerializer, dumps.getLast())) {
-            for (Pair<K, V> pair : buffer) {
-                tempSink.put(pair.key(), pair.value());
+        long startTime = System.nanoTime();
+        buffer.sort(comparator);
+        dumps.add(Files.createTempFile(outputPath.toAbsolutePath().getParent(), "dump_" + dumps.size(), ".bin"));
+        try (BinaryFileSink<K, V> tempSink = new BinaryFileSink<>(
+                keySerializer, valueSerializer, dumps.getLast(), codec, asyncBufferSize)) {
+            if (combiner == null) {
+                buffer.writeTo(tempSink);
+            } else {
+                writeCombined(buffer.iterator(), tempSink);
             }
         }
+        spilledRecords += buffer.size();
+        spilledBytes += Files.size(dumps.getLast());
         buffer.clear();
+        sortNanos += System.nanoTime() - startTime;
     }
 
-    @Override
-    public void close() throws IOException {
-        flushBuffer();
+    private void writeCombined(Iterator<Pair<K, V>> sortedRecords, FileSystemSink<K, V> sink) throws IOException {
+        if (combiner == null) {
+            while (sortedRecords.hasNext()) {
+                KeyValue<K, V> record = RecordIterator.nextRecord(sortedRecords);
+                sink.put(record.key(), record.value());
+            }
+            return;
+        }
 
-        List<Iterator<Pair<K, V>>> dumpsIterators = new ArrayList<>();
-        for (Path dump : dumps) {
-            KeyValueFileIterator<K, V> dumpIterator;
-            dumpIterator = new KeyValueFileIterator<>(dump, keyDeserializer, valueDeserializer);
-            dumpsIterators.add(dumpIterator);
+        GroupedKeyValuesIterator<K, V> groups = new GroupedKeyValuesIterator<>(sortedRecords);
+        if (reuseRecords) {
+            groups.reuseRecords();
         }
+        OutputContext<K, V> output = new OutputContext<>() {
+            @Override
+            public void put(K key, V value) {
+                try {
+                    sink.put(key, value);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
 
-        try (FileSink<K, V> outputFileSink = new FileSink<>(keySerializer, valueSerializer, outputPath);
-             MergedKeyValueIterator<K, V> mergedDumps = new MergedKeyValueIterator<>(dumpsIterators, comparator)) {
-            while (mergedDumps.hasNext()) {
-                Pair<K, V> KeyValue = mergedDumps.next();
-                outputFileSink.put(KeyValue.key(), KeyValue.value());
+            @Override
+            public void increment(String counter, long amount) {
+                counters.increment(counter, amount);
             }
+        };
+        while (groups.hasNext()) {
+            KeyValue<K, Iterator<V>> group = groups.nextRecord();
+            combiner.reduce(group.key(), group.value(), output);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        long startTime = System.nanoTime();
+        buffer.sort(comparator);
+        long mergeStartTime = System.nanoTime();
+        sortNanos += mergeStartTime - startTime;
+
+        List<Path> runs = dumps;
+        try {
+            runs = runMerger.reduceRuns(dumps, 1, outputPath.toAbsolutePath().getParent());
+            if (runs.isEmpty() && combiner == null) {
+                try (BinaryFileSink<K, V> outputFileSink =
+                         new BinaryFileSink<>(keySerializer, valueSerializer, outputPath, codec, asyncBufferSize)) {
+                    buffer.writeTo(outputFileSink);
+                }
+            } else if (rawComparator != null && combiner == null) {
+                mergeRaw(runs);
+            } else {
+                merge(runs);
+            }
+            mergePasses = runMerger.getMergePasses() + (runs.isEmpty() ? 0 : 1);
+            mergeNanos += System.nanoTime() - mergeStartTime;
         } catch (Exception e) {
             throw new RuntimeException(e);
         } finally {
+            buffer.clear();
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
             for (Path dump : dumps) {
                 Files.deleteIfExists(dump);
             }
         }
     }
-}
\ No newline at end of file
+
+    public int getSpillCount() {
+        return dumps.size();
+    }
+
+    public long getSpilledRecords() {
+        return spilledRecords;
+    }
+
+    public long getSpilledBytes() {
+        return spilledBytes;
+    }
+
+    public long getSortNanos() {
+        return sortNanos;
+    }
+
+    public long getMergeNanos() {
+        return mergeNanos;
+    }
+
+    public int getMergePasses() {
+        return mergePasses;
+    }
+
+    private void merge(List<Path> runs) throws IOException {
+        List<Iterator<Pair<K, V>>> dumpsIterators = new ArrayList<>();
+        dumpsIterators.add(buffer.iterator());
+        openRuns(runs, keyDeserializer, valueDeserializer, dumpsIterators);
+        try (MergedKeyValueIterator<K, V> mergedDumps = new MergedKeyValueIterator<>(dumpsIterators, comparator);
+             BinaryFileSink<K, V> outputFileSink =
+                 new BinaryFileSink<>(keySerializer, valueSerializer, outputPath, codec, asyncBufferSize)) {
+            writeCombined(mergedDumps, outputFileSink);
+        }
+    }
+
+    private void mergeRaw(List<Path> runs) throws IOException {
+        Iterator<Pair<K, V>> bufferIterator = buffer.iterator();
+        List<Iterator<Pair<ByteBuffer, ByteBuffer>>> dumpsIterators = new ArrayList<>();
+        dumpsIterators.add(new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return bufferIterator.hasNext();
+            }
+
+            @Override
+            public Pair<ByteBuffer, ByteBuffer> next() {
+                Pair<K, V> record = bufferIterator.next();
+                return new Pair<>(
+                    ByteBuffer.wrap(keySerializer.serialize(record.key())),
+                    ByteBuffer.wrap(valueSerializer.serialize(record.value())));
+            }
+        });
+        openRuns(runs, RawBytes.DESERIALIZER, RawBytes.DESERIALIZER, dumpsIterators);
+        try (MergedKeyValueIterator<ByteBuffer, ByteBuffer> mergedDumps =
+                 new MergedKeyValueIterator<>(dumpsIterators, rawComparator::compare);
+             BinaryFileSink<ByteBuffer, ByteBuffer> outputFileSink =
+                 new BinaryFileSink<>(RawBytes.SERIALIZER, RawBytes.SERIALIZER, outputPath, codec, asyncBufferSize)) {
+            while (mergedDumps.hasNext()) {
+                KeyValue<ByteBuffer, ByteBuffer> record = mergedDumps.nextRecord();
+                outputFileSink.put(record.key(), record.value());
+            }
+        }
+    }
+
+    private <RK, RV> void openRuns(
+        List<Path> runs,
+        BinaryDeserializer<RK> runKeyDeserializer,
+        BinaryDeserializer<RV> runValueDeserializer,
+        List<Iterator<Pair<RK, RV>>> dumpsIterators
+    ) throws IOException {
+        try {
+            for (Path run : runs) {
+                BinaryKeyValueFileIterator<RK, RV> runIterator =
+                    new BinaryKeyValueFileIterator<>(run, runKeyDeserializer, runValueDeserializer);
+                dumpsIterators.add(reuseRecords ? runIterator.reuseRecords() : runIterator);
+            }
+        } catch (IOException | RuntimeException e) {
+            AutoCloseableSource.closeAfterFailure(dumpsIterators, e);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package ru.nsu.mr.sinks;
+
+import ru.nsu.mr.SizeEstimator;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.List;
+import java.util.function.DoubleSupplier;
+
+class SpillBudget<K, V> {
+    private static final int HEAP_CHECK_INTERVAL = 1024;
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+    private static final List<MemoryPoolMXBean> HEAP_POOLS = ManagementFactory.getMemoryPoolMXBeans().stream()
+        .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported())
+        .toList();
+
+    private final int maxRecords;
+    private final DoubleSupplier heapUsage;
+    private long maxBytes;
+    private SizeEstimator<K, V> sizeEstimator;
+    private double heapThreshold;
+    private int heapMinRecords;
+    private int records;
+    private long bytes;
+
+    SpillBudget(int maxRecords) {
+        this(maxRecords, SpillBudget::heapUsageAfterLastCollection);
+    }
+
+    SpillBudget(int maxRecords, DoubleSupplier heapUsage) {
+        this.maxRecords = maxRecords;
+        this.heapUsage = heapUsage;
+    }
+
+    void setMaxBytes(long maxBytes, SizeEstimator<K, V> sizeEstimator) {
+        this.maxBytes = maxBytes;
+        this.sizeEstimator = sizeEstimator;
+    }
+
+    void setHeapThreshold(double heapThreshold, int heapMinRecords) {
+        this.heapThreshold = heapThreshold;
+        this.heapMinRecords = heapMinRecords;
+    }
+
+    boolean add(K key, V value) {
+        ++records;
+        if (maxBytes > 0) {
+            bytes += sizeEstimator.estimate(key, value);
+        }
+        return records >= maxRecords
+            || (maxBytes > 0 && bytes >= maxBytes)
+            || (heapThreshold > 0 && records >= heapMinRecords && records % HEAP_CHECK_INTERVAL == 0
+                && heapUsage.getAsDouble() >= heapThreshold);
+    }
+
+    @SuppressWarnings("unchecked")
+    boolean addInt(K key, int value) {
+        return add(key, maxBytes > 0 ? (V) (Integer) value : null);
+    }
+
+    @SuppressWarnings("unchecked")
+    boolean addLong(K key, long value) {
+        return add(key, maxBytes > 0 ? (V) (Long) value : null);
+    }
+
+    // Usage right after the last collection leaves out garbage, which would otherwise trigger spills on its own.
+    private static double heapUsageAfterLastCollection() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : HEAP_POOLS) {
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (usage != null) {
+                used += usage.getUsed();
+            }
+        }
+        MemoryUsage heap = MEMORY.getHeapMemoryUsage();
+        long limit = heap.getMax() > 0 ? heap.getMax() : heap.getCommitted();
+        return (double) used / limit;
+    }
+
+    void reset() {
+        records = 0;
+        bytes = 0;
+    }
+}
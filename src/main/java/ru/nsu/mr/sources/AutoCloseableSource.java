@@ -5,4 +5,16 @@ import java.io.IOException;
 public interface AutoCloseableSource extends AutoCloseable {
     @Override
     void close() throws IOException;
+
+    static void closeAfterFailure(Iterable<?> resources, Exception failure) {
+        for (Object resource : resources) {
+            if (resource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception closeFailure) {
+                    failure.addSuppressed(closeFailure);
+                }
+            }
+        }
+    }
 }
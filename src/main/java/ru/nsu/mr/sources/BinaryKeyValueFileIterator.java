@@ -0,0 +1,156 @@
+package ru.nsu.mr.sources;
+
+import ru.nsu.mr.BinaryDeserializer;
+import ru.nsu.mr.KeyValue;
+import ru.nsu.mr.Pair;
+import ru.nsu.mr.ReusablePair;
+import ru.nsu.mr.io.ByteInput;
+import ru.nsu.mr.io.RawBytes;
+import ru.nsu.mr.io.RecordFiles;
+import ru.nsu.mr.io.VarInt;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.NoSuchElementException;
+
+public class BinaryKeyValueFileIterator<K, V> implements RecordIterator<K, V>, AutoCloseableSource {
+    private final ByteInput reader;
+    private final BinaryDeserializer<K> keyDeserializer;
+    private final BinaryDeserializer<V> valueDeserializer;
+    private KeyValue<K, V> nextRecord;
+    private long recordsRead;
+    private ReusablePair<K, V> reusableRecord;
+    private ByteBuffer[] views;
+    private ByteBuffer[] viewSources;
+    private boolean readPending;
+
+    public BinaryKeyValueFileIterator(
+        Path filePath,
+        BinaryDeserializer<K> keyDeserializer,
+        BinaryDeserializer<V> valueDeserializer
+    ) throws IOException {
+        this(RecordFiles.openInput(filePath), keyDeserializer, valueDeserializer);
+    }
+
+    public BinaryKeyValueFileIterator(
+        ByteBuffer records,
+        BinaryDeserializer<K> keyDeserializer,
+        BinaryDeserializer<V> valueDeserializer
+    ) throws IOException {
+        this(RecordFiles.openInput(records), keyDeserializer, valueDeserializer);
+    }
+
+    private BinaryKeyValueFileIterator(
+        ByteInput reader,
+        BinaryDeserializer<K> keyDeserializer,
+        BinaryDeserializer<V> valueDeserializer
+    ) throws IOException {
+        this.reader = reader;
+        this.keyDeserializer = keyDeserializer;
+        this.valueDeserializer = valueDeserializer;
+        try {
+            this.nextRecord = readNextRecord();
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+    }
+
+    public BinaryKeyValueFileIterator<K, V> reuseRecords() {
+        reusableRecord = new ReusablePair<>();
+        views = new ByteBuffer[2];
+        viewSources = new ByteBuffer[2];
+        return this;
+    }
+
+    private KeyValue<K, V> readNextRecord() throws IOException {
+        reader.ensureAvailable(VarInt.MAX_SIZE);
+        if (!reader.buffer().hasRemaining()) {
+            return null;
+        }
+        int keyLength = VarInt.read(reader.buffer());
+        reader.ensureAvailable(keyLength + VarInt.MAX_SIZE);
+        requireAvailable(keyLength + 1);
+        ByteBuffer buffer = reader.buffer();
+        int keyStart = buffer.position();
+        int valueLength = VarInt.read(buffer.position(keyStart + keyLength));
+        int valueOffset = buffer.position() - keyStart;
+        // Keep the whole record in the buffer before deserializing, views into it must not be compacted away.
+        buffer.position(keyStart);
+        requireAvailable(valueOffset + valueLength);
+        buffer = reader.buffer();
+        keyStart = buffer.position();
+        buffer.position(keyStart + valueOffset + valueLength);
+
+        K key = deserialize(keyDeserializer, buffer, 0, keyStart, keyLength);
+        V value = deserialize(valueDeserializer, buffer, 1, keyStart + valueOffset, valueLength);
+        if (reusableRecord == null) {
+            return new Pair<>(key, value);
+        }
+        return reusableRecord.set(key, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T deserialize(BinaryDeserializer<T> deserializer, ByteBuffer buffer, int slot, int position, int length) {
+        if (reusableRecord == null) {
+            return deserializer.deserialize(buffer.slice(position, length));
+        }
+
+        if (viewSources[slot] != buffer) {
+            viewSources[slot] = buffer;
+            views[slot] = buffer.duplicate();
+        }
+        ByteBuffer view = views[slot].limit(position + length).position(position);
+        return deserializer == RawBytes.DESERIALIZER ? (T) view : deserializer.deserialize(view);
+    }
+
+    private void requireAvailable(int bytesCount) throws IOException {
+        if (!reader.ensureAvailable(bytesCount)) {
+            throw new EOFException("Truncated record");
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (readPending) {
+            readPending = false;
+            try {
+                nextRecord = readNextRecord();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return nextRecord != null;
+    }
+
+    @Override
+    public KeyValue<K, V> nextRecord() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        KeyValue<K, V> result = nextRecord;
+        ++recordsRead;
+        if (reusableRecord != null) {
+            // Reading ahead could overwrite the bytes the returned views point to.
+            readPending = true;
+            return result;
+        }
+        try {
+            nextRecord = readNextRecord();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return result;
+    }
+
+    public long getRecordsRead() {
+        return recordsRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
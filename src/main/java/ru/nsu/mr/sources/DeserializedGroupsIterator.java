@@ -0,0 +1,66 @@
+package ru.nsu.mr.sources;
+
+import ru.nsu.mr.BinaryDeserializer;
+import ru.nsu.mr.KeyValue;
+import ru.nsu.mr.Pair;
+import ru.nsu.mr.PredefinedFunctions;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.function.Function;
+
+public class DeserializedGroupsIterator<RAW_KEY, K, V>
+    implements Iterator<Pair<K, Iterator<V>>>, AutoCloseableSource
+{
+    private final GroupedKeyValuesIterator<RAW_KEY, ByteBuffer> rawGroups;
+    private final Function<RAW_KEY, K> keyDeserializer;
+    private final BinaryDeserializer<V> valueDeserializer;
+
+    public DeserializedGroupsIterator(
+        GroupedKeyValuesIterator<RAW_KEY, ByteBuffer> rawGroups,
+        Function<RAW_KEY, K> keyDeserializer,
+        BinaryDeserializer<V> valueDeserializer
+    ) {
+        this.rawGroups = rawGroups;
+        this.keyDeserializer = keyDeserializer;
+        this.valueDeserializer = valueDeserializer;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return rawGroups.hasNext();
+    }
+
+    @Override
+    public Pair<K, Iterator<V>> next() {
+        KeyValue<RAW_KEY, Iterator<ByteBuffer>> rawGroup = rawGroups.nextRecord();
+        return new Pair<>(keyDeserializer.apply(rawGroup.key()), values(rawGroup.value()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Iterator<V> values(Iterator<ByteBuffer> rawValues) {
+        if (valueDeserializer == PredefinedFunctions.INTEGER_BINARY_DESERIALIZER) {
+            return (Iterator<V>) new IntValuesIterator(rawValues);
+        }
+        if (valueDeserializer == PredefinedFunctions.LONG_BINARY_DESERIALIZER) {
+            return (Iterator<V>) new LongValuesIterator(rawValues);
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return rawValues.hasNext();
+            }
+
+            @Override
+            public V next() {
+                return valueDeserializer.deserialize(rawValues.next());
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        rawGroups.close();
+    }
+}
@@ -1,59 +1,75 @@
 package ru.nsu.mr.sources;
 
+import ru.nsu.mr.KeyValue;
 import ru.nsu.mr.Pair;
+import ru.nsu.mr.ReusablePair;
 
 import java.io.IOException;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.function.UnaryOperator;
 
-public class GroupedKeyValuesIterator<K, V> implements Iterator<Pair<K, Iterator<V>>>, AutoCloseableSource {
+public class GroupedKeyValuesIterator<K, V> implements RecordIterator<K, Iterator<V>>, AutoCloseableSource {
     private final Iterator<Pair<K, V>> inputIterator;
-    private Pair<K, V> currentInputRecord;
+    private final UnaryOperator<K> keySnapshot;
+    private KeyValue<K, V> currentInputRecord;
+    private boolean advancePending = true;
+    private GroupValues currentGroup;
+    private ReusablePair<K, Iterator<V>> reusableGroup;
+    private GroupValues reusableValues;
 
     public GroupedKeyValuesIterator(Iterator<Pair<K, V>> inputIterator) {
+        this(inputIterator, UnaryOperator.identity());
+    }
+
+    public GroupedKeyValuesIterator(Iterator<Pair<K, V>> inputIterator, UnaryOperator<K> keySnapshot) {
         this.inputIterator = inputIterator;
-        if (inputIterator.hasNext()) {
-            currentInputRecord = inputIterator.next();
+        this.keySnapshot = keySnapshot;
+    }
+
+    public GroupedKeyValuesIterator<K, V> reuseRecords() {
+        reusableGroup = new ReusablePair<>();
+        reusableValues = new GroupValues();
+        return this;
+    }
+
+    private KeyValue<K, V> currentRecord() {
+        if (advancePending) {
+            currentInputRecord = inputIterator.hasNext() ? RecordIterator.nextRecord(inputIterator) : null;
+            advancePending = false;
         }
+        return currentInputRecord;
     }
 
     @Override
     public boolean hasNext() {
-        return currentInputRecord != null;
+        skipCurrentGroup();
+        return currentRecord() != null;
+    }
+
+    private void skipCurrentGroup() {
+        if (currentGroup == null) {
+            return;
+        }
+        while (currentGroup.hasNext()) {
+            currentGroup.next();
+        }
+        currentGroup = null;
     }
 
     @Override
-    public Pair<K, Iterator<V>> next() {
-        // TODO: roll current group iterator till the end of the group
+    public KeyValue<K, Iterator<V>> nextRecord() {
         if (!hasNext()) {
             throw new NoSuchElementException();
         }
 
-        K groupKey = currentInputRecord.key();
-
-        return new Pair<>(groupKey, new Iterator<>() {
-            private V groupCurrentValue = currentInputRecord.value();
-
-            @Override
-            public boolean hasNext() {
-                return groupCurrentValue != null;
-            }
-
-            @Override
-            public V next() {
-                if (!hasNext()) {
-                    throw new NoSuchElementException();
-                }
-
-                V result = groupCurrentValue;
-                groupCurrentValue = null;
-                currentInputRecord = inputIterator.hasNext() ? inputIterator.next() : null;
-                if (currentInputRecord != null && currentInputRecord.key().equals(groupKey)) {
-                    groupCurrentValue = currentInputRecord.value();
-                }
-                return result;
-            }
-        });
+        K groupKey = keySnapshot.apply(currentInputRecord.key());
+        if (reusableGroup == null) {
+            currentGroup = new GroupValues().reset(groupKey);
+            return new Pair<>(groupKey, currentGroup);
+        }
+        currentGroup = reusableValues.reset(groupKey);
+        return reusableGroup.set(groupKey, currentGroup);
     }
 
     @Override
@@ -62,4 +78,33 @@ public class GroupedKeyValuesIterator<K, V> implements Iterator<Pair<K, Iterator
             ((AutoCloseableSource) inputIterator).close();
         }
     }
+
+    private final class GroupValues implements Iterator<V> {
+        private K groupKey;
+        private boolean finished;
+
+        private GroupValues reset(K groupKey) {
+            this.groupKey = groupKey;
+            this.finished = false;
+            return this;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!finished) {
+                KeyValue<K, V> record = currentRecord();
+                finished = record == null || !record.key().equals(groupKey);
+            }
+            return !finished;
+        }
+
+        @Override
+        public V next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            advancePending = true;
+            return currentInputRecord.value();
+        }
+    }
 }
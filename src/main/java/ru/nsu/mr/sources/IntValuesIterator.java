@@ -0,0 +1,24 @@
+package ru.nsu.mr.sources;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+
+public class IntValuesIterator implements PrimitiveIterator.OfInt {
+    private final Iterator<ByteBuffer> rawValues;
+
+    public IntValuesIterator(Iterator<ByteBuffer> rawValues) {
+        this.rawValues = rawValues;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return rawValues.hasNext();
+    }
+
+    @Override
+    public int nextInt() {
+        ByteBuffer value = rawValues.next();
+        return value.getInt(value.position());
+    }
+}
@@ -1,21 +1,23 @@
 package ru.nsu.mr.sources;
 
 import ru.nsu.mr.Deserializer;
+import ru.nsu.mr.KeyValue;
 import ru.nsu.mr.Pair;
+import ru.nsu.mr.ReusablePair;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Iterator;
 import java.util.NoSuchElementException;
 
-public class KeyValueFileIterator<K, V> implements Iterator<Pair<K, V>>, AutoCloseableSource {
+public class KeyValueFileIterator<K, V> implements RecordIterator<K, V>, AutoCloseableSource {
     private final BufferedReader reader;
     private String nextLine;
 
     private final Deserializer<K> keyDeserializer;
     private final Deserializer<V> valueDeserializer;
+    private ReusablePair<K, V> reusableRecord;
 
     public KeyValueFileIterator(
         Path filePath,
@@ -28,6 +30,11 @@ public class KeyValueFileIterator<K, V> implements Iterator<Pair<K, V>>, AutoClo
         this.nextLine = readNextLine();
     }
 
+    public KeyValueFileIterator<K, V> reuseRecords() {
+        reusableRecord = new ReusablePair<>();
+        return this;
+    }
+
     private String readNextLine() throws IOException {
         return reader.readLine();
     }
@@ -38,25 +45,28 @@ public class KeyValueFileIterator<K, V> implements Iterator<Pair<K, V>>, AutoClo
     }
 
     @Override
-    public Pair<K, V> next() {
+    public KeyValue<K, V> nextRecord() {
         if (nextLine == null) {
             throw new NoSuchElementException();
         }
 
-        String[] parts = nextLine.split(" ", 2);
-        if (parts.length < 2) {
+        int separator = nextLine.indexOf(' ');
+        if (separator < 0) {
             throw new IllegalArgumentException("Invalid key-value pair: " + nextLine);
         }
 
-        K key = keyDeserializer.deserialize(parts[0]);
-        V value = valueDeserializer.deserialize(parts[1]);
+        K key = keyDeserializer.deserialize(nextLine.substring(0, separator));
+        V value = valueDeserializer.deserialize(nextLine.substring(separator + 1));
         try {
             nextLine = readNextLine();
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
 
-        return new Pair<>(key, value);
+        if (reusableRecord == null) {
+            return new Pair<>(key, value);
+        }
+        return reusableRecord.set(key, value);
     }
 
     @Override
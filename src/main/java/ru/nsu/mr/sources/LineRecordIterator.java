@@ -0,0 +1,107 @@
+package ru.nsu.mr.sources;
+
+import ru.nsu.mr.InputSplit;
+import ru.nsu.mr.KeyValue;
+import ru.nsu.mr.Pair;
+import ru.nsu.mr.ReusablePair;
+import ru.nsu.mr.io.MappedFileReader;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+
+public class LineRecordIterator implements RecordIterator<String, String>, AutoCloseableSource {
+    private final MappedFileReader reader;
+    private final String fileName;
+    private final long end;
+    private byte[] line = new byte[256];
+    private String nextLine;
+    private long recordsRead;
+    private ReusablePair<String, String> reusableRecord;
+
+    public LineRecordIterator(InputSplit split) throws IOException {
+        this.reader = new MappedFileReader(split.path(), Math.max(0, split.start() - 1));
+        this.fileName = split.path().toString();
+        this.end = split.start() + split.length();
+        if (split.start() > 0) {
+            skipLine();
+        }
+        this.nextLine = readNextLine();
+    }
+
+    public LineRecordIterator reuseRecords() {
+        reusableRecord = new ReusablePair<>();
+        return this;
+    }
+
+    private int findLineLength() throws IOException {
+        int scanned = 0;
+        while (reader.ensureAvailable(scanned + 1)) {
+            ByteBuffer buffer = reader.buffer();
+            for (int i = buffer.position() + scanned; i < buffer.limit(); ++i) {
+                if (buffer.get(i) == '\n') {
+                    return i - buffer.position();
+                }
+            }
+            scanned = buffer.remaining();
+        }
+        return scanned;
+    }
+
+    private void skipLine() throws IOException {
+        int lineLength = findLineLength();
+        ByteBuffer buffer = reader.buffer();
+        buffer.position(Math.min(buffer.limit(), buffer.position() + lineLength + 1));
+    }
+
+    private String readNextLine() throws IOException {
+        if (reader.position() >= end || !reader.ensureAvailable(1)) {
+            return null;
+        }
+        int lineLength = findLineLength();
+        ByteBuffer buffer = reader.buffer();
+        int consumed = Math.min(buffer.remaining(), lineLength + 1);
+        if (lineLength > 0 && buffer.get(buffer.position() + lineLength - 1) == '\r') {
+            --lineLength;
+        }
+        if (line.length < lineLength) {
+            line = new byte[Math.max(lineLength, line.length * 2)];
+        }
+        buffer.get(buffer.position(), line, 0, lineLength);
+        buffer.position(buffer.position() + consumed);
+        return new String(line, 0, lineLength, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public boolean hasNext() {
+        return nextLine != null;
+    }
+
+    @Override
+    public KeyValue<String, String> nextRecord() {
+        if (nextLine == null) {
+            throw new NoSuchElementException();
+        }
+        String currentLine = nextLine;
+        ++recordsRead;
+        try {
+            nextLine = readNextLine();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        if (reusableRecord == null) {
+            return new Pair<>(fileName, currentLine);
+        }
+        return reusableRecord.set(fileName, currentLine);
+    }
+
+    public long getRecordsRead() {
+        return recordsRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
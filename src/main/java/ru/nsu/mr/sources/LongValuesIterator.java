@@ -0,0 +1,24 @@
+package ru.nsu.mr.sources;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.PrimitiveIterator;
+
+public class LongValuesIterator implements PrimitiveIterator.OfLong {
+    private final Iterator<ByteBuffer> rawValues;
+
+    public LongValuesIterator(Iterator<ByteBuffer> rawValues) {
+        this.rawValues = rawValues;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return rawValues.hasNext();
+    }
+
+    @Override
+    public long nextLong() {
+        ByteBuffer value = rawValues.next();
+        return value.getLong(value.position());
+    }
+}
@@ -1,49 +1,101 @@
 package ru.nsu.mr.sources;
 
+import ru.nsu.mr.KeyValue;
 import ru.nsu.mr.Pair;
 
 import java.io.IOException;
 import java.util.*;
 
-public class MergedKeyValueIterator<K, V> implements Iterator<Pair<K, V>>, AutoCloseableSource {
-    private final PriorityQueue<Pair<Pair<K, V>, Integer>> minHeap;
+public class MergedKeyValueIterator<K, V> implements RecordIterator<K, V>, AutoCloseableSource {
+    private static final int NO_SOURCE = -1;
+
     private final List<Iterator<Pair<K, V>>> iterators;
+    private final Comparator<K> comparator;
+    private final KeyValue<K, V>[] heads;
+    private final int[] tree;
+    private int pendingSource = NO_SOURCE;
 
+    @SuppressWarnings("unchecked")
     public MergedKeyValueIterator(List<Iterator<Pair<K, V>>> iterators, Comparator<K> comparator) {
         this.iterators = iterators;
-        this.minHeap = new PriorityQueue<>((a, b) -> comparator.compare(a.key().key(), b.key().key()));
-        for (int i = 0; i < iterators.size(); i++) {
-            if (iterators.get(i).hasNext()) {
-                minHeap.add(new Pair<>(iterators.get(i).next(), i));
+        this.comparator = comparator;
+        this.heads = (KeyValue<K, V>[]) new KeyValue<?, ?>[iterators.size()];
+        this.tree = new int[iterators.size()];
+        Arrays.fill(tree, NO_SOURCE);
+        try {
+            for (int i = iterators.size() - 1; i >= 0; i--) {
+                heads[i] = iterators.get(i).hasNext() ? RecordIterator.nextRecord(iterators.get(i)) : null;
+                replay(i);
+            }
+        } catch (RuntimeException e) {
+            try {
+                closeSources();
+            } catch (IOException closeFailure) {
+                e.addSuppressed(closeFailure);
+            }
+            throw e;
+        }
+    }
+
+    private void replay(int source) {
+        int winner = source;
+        for (int node = (source + tree.length) >>> 1; node > 0; node >>>= 1) {
+            if (beats(tree[node], winner)) {
+                int loser = winner;
+                winner = tree[node];
+                tree[node] = loser;
             }
         }
+        tree[0] = winner;
+    }
+
+    private boolean beats(int first, int second) {
+        if (first == NO_SOURCE) {
+            return true;
+        }
+        if (second == NO_SOURCE) {
+            return false;
+        }
+        if (heads[first] == null || heads[second] == null) {
+            return heads[second] == null;
+        }
+        int comparison = comparator.compare(heads[first].key(), heads[second].key());
+        return comparison < 0 || (comparison == 0 && first < second);
     }
 
     @Override
     public boolean hasNext() {
-        return !minHeap.isEmpty();
+        advancePendingSource();
+        return tree.length > 0 && heads[tree[0]] != null;
+    }
+
+    private void advancePendingSource() {
+        if (pendingSource == NO_SOURCE) {
+            return;
+        }
+        Iterator<Pair<K, V>> iterator = iterators.get(pendingSource);
+        heads[pendingSource] = iterator.hasNext() ? RecordIterator.nextRecord(iterator) : null;
+        replay(pendingSource);
+        pendingSource = NO_SOURCE;
     }
 
     @Override
-    public Pair<K, V> next() {
+    public KeyValue<K, V> nextRecord() {
         if (!hasNext()) {
             throw new NoSuchElementException();
         }
 
-        Pair<Pair<K, V>, Integer> minNode = minHeap.poll();
-        assert minNode != null;
-        Pair<K, V> result = minNode.key();
-        int index = minNode.value();
-
-        if (iterators.get(index).hasNext()) {
-            minHeap.add(new Pair<>(iterators.get(index).next(), index));
-        }
-
-        return result;
+        // The winning source is advanced lazily, so a reused record stays valid until the next call.
+        pendingSource = tree[0];
+        return heads[pendingSource];
     }
 
     @Override
     public void close() throws IOException {
+        closeSources();
+    }
+
+    private void closeSources() throws IOException {
         for (Iterator<Pair<K, V>> iterator : iterators) {
             if (iterator instanceof AutoCloseableSource) {
                 ((AutoCloseableSource) iterator).close();
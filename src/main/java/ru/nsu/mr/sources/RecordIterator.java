@@ -0,0 +1,24 @@
+package ru.nsu.mr.sources;
+
+import ru.nsu.mr.KeyValue;
+import ru.nsu.mr.Pair;
+
+import java.util.Iterator;
+
+// In record reuse mode nextRecord() refills one holder instead of allocating, next() still returns a Pair.
+public interface RecordIterator<K, V> extends Iterator<Pair<K, V>> {
+    KeyValue<K, V> nextRecord();
+
+    @Override
+    default Pair<K, V> next() {
+        return toPair(nextRecord());
+    }
+
+    static <K, V> KeyValue<K, V> nextRecord(Iterator<Pair<K, V>> iterator) {
+        return iterator instanceof RecordIterator<K, V> records ? records.nextRecord() : iterator.next();
+    }
+
+    static <K, V> Pair<K, V> toPair(KeyValue<K, V> record) {
+        return record instanceof Pair<K, V> pair ? pair : new Pair<>(record.key(), record.value());
+    }
+}
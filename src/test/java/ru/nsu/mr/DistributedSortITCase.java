@@ -2,6 +2,7 @@ package ru.nsu.mr;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import ru.nsu.mr.config.Configuration;
@@ -85,6 +86,9 @@ class DistributedSortITCase {
                 STRING_KEY_COMPARATOR,
                 STRING_KEY_HASH
         );
+        if (testConfig.rawComparator) {
+            job.setRawComparator(STRING_RAW_COMPARATOR);
+        }
 
         Configuration config = new Configuration()
                 .set(MAPPERS_COUNT, mappersCount)
@@ -98,6 +102,58 @@ class DistributedSortITCase {
         checkResult(testConfig, reducersOutputPath);
     }
 
+    @Test
+    public void testTotalOrderPartitioningProducesGloballySortedOutputs() throws IOException {
+        int reducersCount = 4;
+        List<Path> inputFiles = new ArrayList<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 4; i++) {
+            Path inputFile = Files.createTempFile("InputFile" + i, ".txt");
+            try (BufferedWriter writer = Files.newBufferedWriter(inputFile)) {
+                for (int j = 0; j < 2000; j++) {
+                    writer.write(String.format("%06d %d", random.nextInt(1_000_000), j));
+                    writer.newLine();
+                }
+            }
+            inputFiles.add(inputFile);
+        }
+
+        MapReduceJob<String, Integer, String, Integer> job = new MapReduceJob<>(
+                new DistributedSortMapper(),
+                new DistributedSortReducer(),
+                STRING_SERIALIZER,
+                INTEGER_SERIALIZER,
+                STRING_DESERIALIZER,
+                INTEGER_DESERIALIZER,
+                STRING_SERIALIZER,
+                INTEGER_SERIALIZER,
+                STRING_KEY_COMPARATOR,
+                STRING_KEY_HASH
+        ).setPartitioner(new TotalOrderPartitioner<>(1000));
+        Configuration config = new Configuration()
+                .set(MAPPERS_COUNT, 3)
+                .set(REDUCERS_COUNT, reducersCount);
+
+        new MapReduceSequentialRunner<String, Integer, String, Integer>()
+                .run(job, inputFiles, config, mappersOutputPath, reducersOutputPath);
+
+        List<String> allKeys = new ArrayList<>();
+        for (int i = 0; i < reducersCount; ++i) {
+            List<String> lines = Files.readAllLines(reducersOutputPath.resolve("output-" + i + ".txt"));
+            assertTrue(lines.size() > 8000 / reducersCount / 2, "Unbalanced partition " + i + ": " + lines.size());
+            for (String line : lines) {
+                allKeys.add(line.split(" ")[0]);
+            }
+        }
+        assertEquals(8000, allKeys.size());
+        List<String> sortedKeys = new ArrayList<>(allKeys);
+        Collections.sort(sortedKeys);
+        assertEquals(sortedKeys, allKeys);
+        for (Path inputFile : inputFiles) {
+            Files.delete(inputFile);
+        }
+    }
+
     private void checkResult(SortConfig config, Path outputPath) throws IOException {
         Map<String, List<String>> sortedResults = new HashMap<>();
         for (int i = 0; i < config.reducersCount; ++i) {
@@ -133,24 +189,31 @@ class DistributedSortITCase {
         int recordsPerFile;
         int mappersCount;
         int reducersCount;
+        boolean rawComparator;
 
         SortConfig(int fileCount, int recordsPerFile, int reducersCount, int mappersCount) {
+            this(fileCount, recordsPerFile, reducersCount, mappersCount, false);
+        }
+
+        SortConfig(int fileCount, int recordsPerFile, int reducersCount, int mappersCount, boolean rawComparator) {
             this.fileCount = fileCount;
             this.recordsPerFile = recordsPerFile;
             this.reducersCount = reducersCount;
             this.mappersCount = mappersCount;
+            this.rawComparator = rawComparator;
         }
 
         @Override
         public String toString() {
             return "M = " + mappersCount + ", R = " + reducersCount + ", files = " +
-                    fileCount + ", record per file = " + recordsPerFile;
+                    fileCount + ", record per file = " + recordsPerFile + (rawComparator ? ", raw comparator" : "");
         }
     }
 
     static Stream<SortConfig> sortParameters() {
         return Stream.of(
-                new SortConfig(5, 9, 3, 2)
+                new SortConfig(5, 9, 3, 2),
+                new SortConfig(5, 9, 3, 2, true)
         );
     }
 
@@ -0,0 +1,30 @@
+package ru.nsu.mr;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeavyHitterSketchTest {
+    @Test
+    public void testFrequentKeysSurviveUniformNoise() {
+        HeavyHitterSketch<Integer> sketch = new HeavyHitterSketch<>(20);
+        Random random = new Random(7);
+        for (int i = 0; i < 100000; i++) {
+            int roll = random.nextInt(10);
+            if (roll < 4) {
+                sketch.add(-1);
+            } else if (roll < 5) {
+                sketch.add(-2);
+            } else {
+                sketch.add(random.nextInt(100000));
+            }
+        }
+
+        assertEquals(100000, sketch.getTotalCount());
+        assertTrue(sketch.estimate(-1) >= 40000 - 100000 / 21);
+        assertTrue(sketch.estimate(-2) >= 10000 - 100000 / 21);
+        assertTrue(sketch.estimate(12345) <= 100000 / 21 + 10);
+    }
+}
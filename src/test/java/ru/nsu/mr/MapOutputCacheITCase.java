@@ -0,0 +1,145 @@
+package ru.nsu.mr;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.nsu.mr.config.Configuration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.nsu.mr.PredefinedFunctions.*;
+import static ru.nsu.mr.config.ConfigurationOption.*;
+
+class MapOutputCacheITCase {
+    private Path reducersOutputPath;
+    private Path mappersOutputPath;
+    private Path cachePath;
+    private List<Path> inputFiles;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        reducersOutputPath = Files.createTempDirectory("outputs");
+        mappersOutputPath = Files.createTempDirectory("mappers_outputs");
+        cachePath = Files.createTempDirectory("map_output_cache");
+        inputFiles = new ArrayList<>();
+        for (int i = 0; i < 4; ++i) {
+            Path inputFile = Files.createTempFile("InputFile" + i, ".txt");
+            Files.writeString(inputFile, "a b c\nb c\nc\n");
+            inputFiles.add(inputFile);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        deleteDirectory(reducersOutputPath);
+        deleteDirectory(mappersOutputPath);
+        deleteDirectory(cachePath);
+        for (Path inputFile : inputFiles) {
+            Files.deleteIfExists(inputFile);
+        }
+    }
+
+    @Test
+    public void testUnchangedInputsAreRestoredFromCache() throws IOException {
+        Configuration config = cachedConfiguration();
+
+        JobResult firstRun = runWordCount(config);
+        JobResult secondRun = runWordCount(config);
+
+        assertEquals(0, firstRun.getCounters().get(TaskCounter.MAP_OUTPUT_CACHE_HITS));
+        assertEquals(4, secondRun.getCounters().get(TaskCounter.MAP_OUTPUT_CACHE_HITS));
+        assertEquals(Map.of("a", 4, "b", 8, "c", 12), readResult(2));
+        assertEquals(
+            firstRun.getCounters().get(TaskCounter.MAP_OUTPUT_RECORDS),
+            secondRun.getCounters().get(TaskCounter.MAP_OUTPUT_RECORDS));
+        assertEquals(0, secondRun.getCounters().get(TaskCounter.SPILL_COUNT));
+    }
+
+    @Test
+    public void testOnlyTasksOfChangedInputsAreRerun() throws IOException {
+        Configuration config = cachedConfiguration().set(MAP_OUTPUT_CACHE_CONTENT_HASH, true);
+
+        runWordCount(config);
+        Files.writeString(inputFiles.get(2), "a a a\na a\na\n");
+        JobResult secondRun = runWordCount(config);
+
+        assertEquals(3, secondRun.getCounters().get(TaskCounter.MAP_OUTPUT_CACHE_HITS));
+        assertEquals(1, secondRun.getMapTasks().stream()
+            .filter(task -> task.counters().get(TaskCounter.MAP_OUTPUT_CACHE_HITS) == 0)
+            .count());
+        assertEquals(Map.of("a", 9, "b", 6, "c", 9), readResult(2));
+    }
+
+    @Test
+    public void testCacheIsBoundedBySize() throws IOException {
+        Configuration config = cachedConfiguration().set(MAP_OUTPUT_CACHE_MAX_BYTES, 0L);
+
+        runWordCount(config);
+        JobResult secondRun = runWordCount(config);
+
+        assertEquals(0, secondRun.getCounters().get(TaskCounter.MAP_OUTPUT_CACHE_HITS));
+        assertEquals(Map.of("a", 4, "b", 8, "c", 12), readResult(2));
+        try (Stream<Path> entries = Files.list(cachePath)) {
+            assertEquals(0, entries.count());
+        }
+    }
+
+    @Test
+    public void testFailingCacheStoreDoesNotFailTheJob() throws IOException {
+        Path notADirectory = Files.createFile(cachePath.resolve("not-a-directory"));
+        Configuration config = cachedConfiguration().set(MAP_OUTPUT_CACHE_DIRECTORY, notADirectory.toString());
+
+        JobResult result = runWordCount(config);
+
+        assertEquals(0, result.getCounters().get(TaskCounter.MAP_OUTPUT_CACHE_HITS));
+        assertEquals(Map.of("a", 4, "b", 8, "c", 12), readResult(2));
+    }
+
+    private Configuration cachedConfiguration() {
+        return new Configuration()
+            .set(MAPPERS_COUNT, 4)
+            .set(REDUCERS_COUNT, 2)
+            .set(WORKERS_COUNT, 2)
+            .set(INPUT_SPLIT_SIZE, 12L)
+            .set(MAP_OUTPUT_CACHE_DIRECTORY, cachePath.toString());
+    }
+
+    private JobResult runWordCount(Configuration config) {
+        MapReduceJob<String, Integer, String, Integer> job = new MapReduceJob<>(
+            new WordCountITCase.WordCountMapper(),
+            new WordCountITCase.WordCountReducer(),
+            STRING_SERIALIZER,
+            INTEGER_SERIALIZER,
+            STRING_DESERIALIZER,
+            INTEGER_DESERIALIZER,
+            STRING_SERIALIZER,
+            INTEGER_SERIALIZER,
+            STRING_KEY_COMPARATOR,
+            STRING_KEY_HASH
+        );
+        return new MapReduceParallelRunner<String, Integer, String, Integer>()
+            .run(job, inputFiles, config, mappersOutputPath, reducersOutputPath);
+    }
+
+    private Map<String, Integer> readResult(int reducersCount) throws IOException {
+        HashMap<String, Integer> result = new HashMap<>();
+        for (int i = 0; i < reducersCount; ++i) {
+            WordCountITCase.readResult(reducersOutputPath.resolve("output-" + i + ".txt").toString(), result);
+        }
+        return result;
+    }
+
+    private void deleteDirectory(Path path) throws IOException {
+        try (Stream<Path> pathStream = Files.walk(path)) {
+            pathStream.sorted(Comparator.reverseOrder())
+                .map(Path::toFile)
+                .forEach(File::delete);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package ru.nsu.mr;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.nsu.mr.config.Configuration;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.nsu.mr.PredefinedFunctions.*;
+import static ru.nsu.mr.config.ConfigurationOption.*;
+
+class MapReduceClusterRunnerITCase {
+    private Path reducersOutputPath;
+    private Path mappersOutputPath;
+    private List<Path> inputFiles;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        reducersOutputPath = Files.createTempDirectory("outputs");
+        mappersOutputPath = Files.createTempDirectory("mappers_outputs");
+        inputFiles = new ArrayList<>();
+        for (int i = 0; i < 4; ++i) {
+            Path inputFile = Files.createTempFile("InputFile" + i, ".txt");
+            Files.writeString(inputFile, "a b c\nb c\nc\n");
+            inputFiles.add(inputFile);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        deleteDirectory(reducersOutputPath);
+        deleteDirectory(mappersOutputPath);
+        for (Path inputFile : inputFiles) {
+            Files.deleteIfExists(inputFile);
+        }
+    }
+
+    static class CrashingOnceMapper implements Mapper<String, String, String, Integer> {
+        private final String markerFile;
+
+        CrashingOnceMapper(String markerFile) {
+            this.markerFile = markerFile;
+        }
+
+        @Override
+        public void map(Iterator<Pair<String, String>> input, OutputContext<String, Integer> output) {
+            try {
+                Files.createFile(Path.of(markerFile));
+                Runtime.getRuntime().halt(1);
+            } catch (IOException e) {
+                // Marker already exists, this is a retry on another worker.
+            }
+            new WordCountITCase.WordCountMapper().map(input, output);
+        }
+    }
+
+    static class PidRecordingMapper implements Mapper<String, String, String, Integer> {
+        private final String pidsDirectory;
+
+        PidRecordingMapper(String pidsDirectory) {
+            this.pidsDirectory = pidsDirectory;
+        }
+
+        @Override
+        public void map(Iterator<Pair<String, String>> input, OutputContext<String, Integer> output) {
+            try {
+                Files.writeString(Path.of(pidsDirectory, String.valueOf(ProcessHandle.current().pid())), "");
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            new WordCountITCase.WordCountMapper().map(input, output);
+        }
+    }
+
+    static class SlowOrCrashingOnceReducer implements Reducer<String, Integer, String, Integer> {
+        private final String pidsDirectory;
+        private final String markerFile;
+
+        SlowOrCrashingOnceReducer(String pidsDirectory, String markerFile) {
+            this.pidsDirectory = pidsDirectory;
+            this.markerFile = markerFile;
+        }
+
+        @Override
+        public void reduce(String key, Iterator<Integer> values, OutputContext<String, Integer> output) {
+            try {
+                if (!Files.exists(Path.of(pidsDirectory, String.valueOf(ProcessHandle.current().pid())))) {
+                    throw new IOException("This worker serves no map outputs");
+                }
+                Files.createFile(Path.of(markerFile));
+                Runtime.getRuntime().halt(1);
+            } catch (IOException e) {
+                // Keep this reduce running while the outputs of the crashed worker are recomputed.
+                try {
+                    Thread.sleep(500);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            new WordCountITCase.WordCountReducer().reduce(key, values, output);
+        }
+    }
+
+    static class CrashingAfterFirstTaskMapper implements Mapper<String, String, String, Integer> {
+        private final String markerFile;
+        private int tasksMapped;
+
+        CrashingAfterFirstTaskMapper(String markerFile) {
+            this.markerFile = markerFile;
+        }
+
+        @Override
+        public void map(Iterator<Pair<String, String>> input, OutputContext<String, Integer> output) {
+            if (++tasksMapped > 1) {
+                try {
+                    Files.createFile(Path.of(markerFile));
+                    Runtime.getRuntime().halt(1);
+                } catch (IOException e) {
+                    // Another worker already crashed.
+                }
+            }
+            new WordCountITCase.WordCountMapper().map(input, output);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void testWordCountOnWorkerProcesses(boolean pipelined) throws IOException {
+        Configuration config = new Configuration()
+            .set(MAPPERS_COUNT, 4)
+            .set(REDUCERS_COUNT, 2)
+            .set(WORKERS_COUNT, 2)
+            .set(CLUSTER_WORKER_HEAP, "128m")
+            .set(REDUCE_PIPELINED, pipelined);
+
+        JobResult jobResult = new MapReduceClusterRunner<String, Integer, String, Integer>()
+            .run(wordCountJob(new WordCountITCase.WordCountMapper()), inputFiles, config, mappersOutputPath, reducersOutputPath);
+
+        assertEquals(Map.of("a", 4, "b", 8, "c", 12), readResult(2));
+        assertEquals(4, jobResult.getMapTasks().size());
+        assertEquals(12, jobResult.getCounters().get(TaskCounter.MAP_INPUT_RECORDS));
+        assertEquals(24, jobResult.getCounters().get(TaskCounter.REDUCE_INPUT_RECORDS));
+        long mapOutputBytes = 0;
+        for (TaskMetrics task : jobResult.getMapTasks()) {
+            mapOutputBytes += task.counters().get(TaskCounter.BYTES_WRITTEN);
+        }
+        assertEquals(mapOutputBytes, jobResult.getCounters().get(TaskCounter.SHUFFLE_BYTES));
+    }
+
+    @Test
+    public void testTasksOfDeadWorkerAreReassigned() throws IOException {
+        Path markerFile = mappersOutputPath.resolve("crashed.marker");
+        Configuration config = new Configuration()
+            .set(MAPPERS_COUNT, 4)
+            .set(REDUCERS_COUNT, 2)
+            .set(WORKERS_COUNT, 2);
+
+        new MapReduceClusterRunner<String, Integer, String, Integer>()
+            .run(wordCountJob(new CrashingOnceMapper(markerFile.toString())), inputFiles, config,
+                mappersOutputPath, reducersOutputPath);
+
+        assertTrue(Files.exists(markerFile));
+        assertEquals(Map.of("a", 4, "b", 8, "c", 12), readResult(2));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void testOutputsOfDeadWorkerAreRecomputed(boolean pipelined) throws IOException {
+        Path markerFile = mappersOutputPath.resolve("crashed.marker");
+        Configuration config = new Configuration()
+            .set(MAPPERS_COUNT, 4)
+            .set(REDUCERS_COUNT, 2)
+            .set(WORKERS_COUNT, 2)
+            .set(REDUCE_PIPELINED, pipelined);
+
+        JobResult jobResult = new MapReduceClusterRunner<String, Integer, String, Integer>()
+            .run(wordCountJob(new CrashingAfterFirstTaskMapper(markerFile.toString())), inputFiles, config,
+                mappersOutputPath, reducersOutputPath);
+
+        assertTrue(Files.exists(markerFile));
+        assertEquals(Map.of("a", 4, "b", 8, "c", 12), readResult(2));
+        assertEquals(24, jobResult.getCounters().get(TaskCounter.REDUCE_INPUT_RECORDS));
+    }
+
+    @Test
+    public void testOutputsLostWhileAnotherReduceIsRunning() throws IOException {
+        Path markerFile = mappersOutputPath.resolve("crashed.marker");
+        Path pidsDirectory = Files.createTempDirectory("mapper_pids");
+        Configuration config = new Configuration()
+            .set(MAPPERS_COUNT, 6)
+            .set(REDUCERS_COUNT, 2)
+            .set(WORKERS_COUNT, 3);
+
+        JobResult jobResult;
+        try {
+            jobResult = new MapReduceClusterRunner<String, Integer, String, Integer>()
+                .run(wordCountJob(new PidRecordingMapper(pidsDirectory.toString()),
+                        new SlowOrCrashingOnceReducer(pidsDirectory.toString(), markerFile.toString())),
+                    inputFiles, config, mappersOutputPath, reducersOutputPath);
+        } finally {
+            deleteDirectory(pidsDirectory);
+        }
+
+        assertTrue(Files.exists(markerFile));
+        assertEquals(Map.of("a", 4, "b", 8, "c", 12), readResult(2));
+        assertEquals(24, jobResult.getCounters().get(TaskCounter.REDUCE_INPUT_RECORDS));
+    }
+
+    @Test
+    public void testFailedTaskIsPropagated() {
+        Mapper<String, String, String, Integer> failingMapper = (input, output) -> {
+            throw new IllegalStateException("mapper failure");
+        };
+        Configuration config = new Configuration()
+            .set(MAPPERS_COUNT, 2)
+            .set(REDUCERS_COUNT, 2)
+            .set(WORKERS_COUNT, 2);
+
+        RuntimeException e = assertThrows(RuntimeException.class, () ->
+            new MapReduceClusterRunner<String, Integer, String, Integer>()
+                .run(wordCountJob(failingMapper), inputFiles, config, mappersOutputPath, reducersOutputPath));
+
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertFalse(Files.exists(reducersOutputPath.resolve("output-0.txt")));
+    }
+
+    private Map<String, Integer> readResult(int reducersCount) throws IOException {
+        HashMap<String, Integer> result = new HashMap<>();
+        for (int i = 0; i < reducersCount; ++i) {
+            WordCountITCase.readResult(reducersOutputPath.resolve("output-" + i + ".txt").toString(), result);
+        }
+        return result;
+    }
+
+    private static MapReduceJob<String, Integer, String, Integer> wordCountJob(
+        Mapper<String, String, String, Integer> mapper
+    ) {
+        return wordCountJob(mapper, new WordCountITCase.WordCountReducer());
+    }
+
+    private static MapReduceJob<String, Integer, String, Integer> wordCountJob(
+        Mapper<String, String, String, Integer> mapper,
+        Reducer<String, Integer, String, Integer> reducer
+    ) {
+        return new MapReduceJob<>(
+            mapper,
+            reducer,
+            STRING_SERIALIZER,
+            INTEGER_SERIALIZER,
+            STRING_DESERIALIZER,
+            INTEGER_DESERIALIZER,
+            STRING_SERIALIZER,
+            INTEGER_SERIALIZER,
+            STRING_KEY_COMPARATOR,
+            STRING_KEY_HASH
+        );
+    }
+
+    private void deleteDirectory(Path path) throws IOException {
+        try (Stream<Path> pathStream = Files.walk(path)) {
+            pathStream.sorted(Comparator.reverseOrder())
+                .map(Path::toFile)
+                .forEach(File::delete);
+        }
+    }
+}
@@ -0,0 +1,497 @@
+package ru.nsu.mr;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.nsu.mr.config.Configuration;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.nsu.mr.PredefinedFunctions.*;
+import static ru.nsu.mr.config.ConfigurationOption.*;
+
+class MapReduceParallelRunnerITCase {
+    private Path reducersOutputPath;
+    private Path mappersOutputPath;
+    private List<Path> inputFiles;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        reducersOutputPath = Files.createTempDirectory("outputs");
+        mappersOutputPath = Files.createTempDirectory("mappers_outputs");
+        inputFiles = new ArrayList<>();
+        for (int i = 0; i < 8; ++i) {
+            Path inputFile = Files.createTempFile("InputFile" + i, ".txt");
+            Files.writeString(inputFile, "a b c\nb c\nc\n");
+            inputFiles.add(inputFile);
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        deleteDirectory(reducersOutputPath);
+        deleteDirectory(mappersOutputPath);
+        for (Path inputFile : inputFiles) {
+            Files.deleteIfExists(inputFile);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"none", "deflate", "lz"})
+    public void testWordCountWithWorkerPool(String codecName) throws IOException {
+        Configuration config = new Configuration()
+            .set(MAPPERS_COUNT, 4)
+            .set(REDUCERS_COUNT, 3)
+            .set(WORKERS_COUNT, 4)
+            .set(INTERMEDIATE_COMPRESSION_CODEC, codecName);
+
+        new MapReduceParallelRunner<String, Integer, String, Integer>()
+            .run(wordCountJob(new WordCountITCase.WordCountMapper()), inputFiles, config, mappersOutputPath, reducersOutputPath);
+
+        HashMap<String, Integer> result = new HashMap<>();
+        for (int i = 0; i < 3; ++i) {
+            WordCountITCase.readResult(reducersOutputPath.resolve("output-" + i + ".txt").toString(), result);
+        }
+        assertEquals(Map.of("a", 8, "b", 16, "c", 24), result);
+    }
+
+    @Test
+    public void testJobResultReportsCounters() {
+        Mapper<String, String, String, Integer> mapper = (input, output) -> {
+            while (input.hasNext()) {
+                for (String word : input.next().value().split(" ")) {
+                    output.put(word, 1);
+                    if (word.equals("c")) {
+                        output.increment("words.c", 1);
+                    }
+                }
+            }
+        };
+        Configuration config = new Configuration()
+            .set(MAPPERS_COUNT, 4)
+            .set(REDUCERS_COUNT, 3)
+            .set(WORKERS_COUNT, 4)
+            .set(SORTER_IN_MEMORY_RECORDS, 5);
+
+        JobResult result = new MapReduceParallelRunner<String, Integer, String, Integer>()
+            .run(wordCountJob(mapper), inputFiles, config, mappersOutputPath, reducersOutputPath);
+
+        Counters counters = result.getCounters();
+        assertEquals(4, result.getMapTasks().size());
+        assertEquals(3, result.getReduceTasks().size());
+        assertEquals(24, counters.get(TaskCounter.MAP_INPUT_RECORDS));
+        assertEquals(48, counters.get(TaskCounter.MAP_OUTPUT_RECORDS));
+        assertEquals(48, counters.get(TaskCounter.REDUCE_INPUT_RECORDS));
+        assertEquals(3, counters.get(TaskCounter.REDUCE_INPUT_GROUPS));
+        assertEquals(3, counters.get(TaskCounter.REDUCE_OUTPUT_RECORDS));
+        assertEquals(24, counters.get("words.c"));
+        assertTrue(counters.get(TaskCounter.SPILL_COUNT) > 0);
+        assertEquals(8 * 12, mapBytesRead(result));
+        assertTrue(result.getElapsedNanos() >= result.getSlowestReduceTask().elapsedNanos());
+    }
+
+    private static long mapBytesRead(JobResult result) {
+        long bytesRead = 0;
+        for (TaskMetrics task : result.getMapTasks()) {
+            bytesRead += task.counters().get(TaskCounter.BYTES_READ);
+        }
+        return bytesRead;
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void testWordCountWithPrimitiveIntValues(boolean rawComparator) throws IOException {
+        AtomicInteger boxedOutputs = new AtomicInteger();
+        AtomicInteger boxedInputs = new AtomicInteger();
+        IntMapper<String, String, String> mapper = new IntMapper<>() {
+            @Override
+            public void map(Iterator<Pair<String, String>> input, OutputContext<String, Integer> output) {
+                if (!(output instanceof IntOutputContext)) {
+                    boxedOutputs.incrementAndGet();
+                }
+                IntMapper.super.map(input, output);
+            }
+
+            @Override
+            public void mapInts(Iterator<Pair<String, String>> input, IntOutputContext<String> output) {
+                while (input.hasNext()) {
+                    for (String word : input.next().value().split("\\s+")) {
+                        output.putInt(word, 1);
+                    }
+                }
+            }
+        };
+        IntReducer<String, String, Integer> reducer = new IntReducer<>() {
+            @Override
+            public void reduce(String key, Iterator<Integer> values, OutputContext<String, Integer> output) {
+                if (!(values instanceof PrimitiveIterator.OfInt)) {
+                    boxedInputs.incrementAndGet();
+                }
+                IntReducer.super.reduce(key, values, output);
+            }
+
+            @Override
+            public void reduceInts(String key, PrimitiveIterator.OfInt values, OutputContext<String, Integer> output) {
+                int sum = 0;
+                while (values.hasNext()) {
+                    sum += values.nextInt();
+                }
+                output.put(key, sum);
+            }
+        };
+        MapReduceJob<String, Integer, String, Integer> job = new MapReduceJob<>(
+            mapper,
+            reducer,
+            STRING_SERIALIZER,
+            INTEGER_SERIALIZER,
+            STRING_DESERIALIZER,
+            INTEGER_DESERIALIZER,
+            STRING_SERIALIZER,
+            INTEGER_SERIALIZER,
+            STRING_KEY_COMPARATOR,
+            STRING_KEY_HASH
+        );
+        if (rawComparator) {
+            job.setRawComparator(STRING_RAW_COMPARATOR);
+        }
+        assertSame(INTEGER_BINARY_SERIALIZER, job.getBinarySerializerInterValue());
+        Configuration config = new Configuration()
+            .set(MAPPERS_COUNT, 4)
+            .set(REDUCERS_COUNT, 2)
+            .set(WORKERS_COUNT, 4);
+
+        new MapReduceParallelRunner<String, Integer, String, Integer>()
+            .run(job, inputFiles, config, mappersOutputPath, reducersOutputPath);
+
+        HashMap<String, Integer> result = new HashMap<>();
+        for (int i = 0; i < 2; ++i) {
+            WordCountITCase.readResult(reducersOutputPath.resolve("output-" + i + ".txt").toString(), result);
+        }
+        assertEquals(Map.of("a", 8, "b", 16, "c", 24), result);
+        assertEquals(0, boxedOutputs.get());
+        assertEquals(0, boxedInputs.get());
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void testWordCountWithReusedRecords(boolean rawComparator) throws IOException {
+        MapReduceJob<String, Integer, String, Integer> job = wordCountJob(new WordCountITCase.WordCountMapper());
+        if (rawComparator) {
+            job.setRawComparator(STRING_RAW_COMPARATOR);
+        }
+        Configuration config = new Configuration()
+            .set(MAPPERS_COUNT, 4)
+            .set(REDUCERS_COUNT, 2)
+            .set(WORKERS_COUNT, 4)
+            .set(SORTER_IN_MEMORY_RECORDS, 2)
+            .set(SORTER_MERGE_FACTOR, 3)
+            .set(INTERMEDIATE_COMPRESSION_CODEC, "lz")
+            .set(REUSE_RECORDS, true);
+
+        JobResult jobResult = new MapReduceParallelRunner<String, Integer, String, Integer>()
+            .run(job, inputFiles, config, mappersOutputPath, reducersOutputPath);
+
+        HashMap<String, Integer> result = new HashMap<>();
+        for (int i = 0; i < 2; ++i) {
+            WordCountITCase.readResult(reducersOutputPath.resolve("output-" + i + ".txt").toString(), result);
+        }
+        assertEquals(Map.of("a", 8, "b", 16, "c", 24), result);
+        assertEquals(48, jobResult.getCounters().get(TaskCounter.REDUCE_INPUT_RECORDS));
+    }
+
+    @Test
+    public void testIntegerKeysSortNumericallyWithRawComparator() throws IOException {
+        Path numbersInput = Files.createTempFile("NumbersInput", ".txt");
+        Files.writeString(numbersInput, "100 9 -3 10\n7 -20 9 100\n");
+        Mapper<String, String, Integer, Integer> mapper = (input, output) -> {
+            while (input.hasNext()) {
+                for (String number : input.next().value().split(" ")) {
+                    output.put(Integer.parseInt(number), 1);
+                }
+            }
+        };
+        Reducer<Integer, Integer, Integer, Integer> reducer = (key, values, output) -> {
+            int sum = 0;
+            while (values.hasNext()) {
+                sum += values.next();
+            }
+            output.put(key, sum);
+        };
+        MapReduceJob<Integer, Integer, Integer, Integer> job = new MapReduceJob<>(
+            mapper,
+            reducer,
+            INTEGER_SERIALIZER,
+            INTEGER_SERIALIZER,
+            INTEGER_DESERIALIZER,
+            INTEGER_DESERIALIZER,
+            INTEGER_SERIALIZER,
+            INTEGER_SERIALIZER,
+            (Comparator<Integer> & Serializable) Integer::compare,
+            key -> key
+        ).setRawComparator(INTEGER_RAW_COMPARATOR);
+        assertSame(INTEGER_BINARY_SERIALIZER, job.getBinarySerializerInterKey());
+        Configuration config = new Configuration()
+            .set(MAPPERS_COUNT, 2)
+            .set(REDUCERS_COUNT, 1)
+            .set(WORKERS_COUNT, 2)
+            .set(SORTER_IN_MEMORY_RECORDS, 2);
+
+        try {
+            new MapReduceParallelRunner<Integer, Integer, Integer, Integer>()
+                .run(job, List.of(numbersInput), config, mappersOutputPath, reducersOutputPath);
+        } finally {
+            Files.delete(numbersInput);
+        }
+
+        assertEquals(List.of("-20 1", "-3 1", "7 1", "9 2", "10 1", "100 2"),
+            Files.readAllLines(reducersOutputPath.resolve("output-0.txt")));
+    }
+
+    @Test
+    public void testHotKeysAreSaltedForAssociativeReducer() throws IOException {
+        Path skewedInput = Files.createTempFile("SkewedInput", ".txt");
+        inputFiles.add(skewedInput);
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 20000; ++i) {
+            content.append(i % 5 < 2 ? "hot" : "cold" + i).append('\n');
+        }
+        Files.writeString(skewedInput, content.toString());
+
+        AssociativeReducer<String, Integer> sumReducer = (key, values, output) -> {
+            int sum = 0;
+            while (values.hasNext()) {
+                sum += values.next();
+            }
+            output.put(key, sum);
+        };
+        MapReduceJob<String, Integer, String, Integer> job = new MapReduceJob<>(
+            new WordCountITCase.WordCountMapper(),
+            sumReducer,
+            STRING_SERIALIZER,
+            INTEGER_SERIALIZER,
+            STRING_DESERIALIZER,
+            INTEGER_DESERIALIZER,
+            STRING_SERIALIZER,
+            INTEGER_SERIALIZER,
+            STRING_KEY_COMPARATOR,
+            STRING_KEY_HASH
+        );
+        Configuration config = new Configuration()
+            .set(MAPPERS_COUNT, 2)
+            .set(REDUCERS_COUNT, 3)
+            .set(WORKERS_COUNT, 4)
+            .set(SKEW_SALT_SLOTS, 3);
+
+        new MapReduceParallelRunner<String, Integer, String, Integer>()
+            .run(job, inputFiles, config, mappersOutputPath, reducersOutputPath);
+
+        HashMap<String, Integer> result = new HashMap<>();
+        for (int i = 0; i < 3; ++i) {
+            WordCountITCase.readResult(reducersOutputPath.resolve("output-" + i + ".txt").toString(), result);
+        }
+        assertEquals(8000, result.get("hot"));
+        assertEquals(8, result.get("a"));
+        assertEquals(1, result.get("cold19999"));
+        assertEquals(4 + 12000, result.size());
+        long saltPartialRecords = 0;
+        for (int s = 0; s < 3; ++s) {
+            for (int r = 0; r < 3; ++r) {
+                Map<String, Integer> partial = new HashMap<>();
+                WordCountITCase.readMapperResult(job, mappersOutputPath.resolve("salt-partial-" + s + "-" + r + ".bin"), partial);
+                saltPartialRecords += partial.size();
+            }
+        }
+        assertTrue(saltPartialRecords > 0);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void testReducerMergesMapperOutputsInSeveralPasses(boolean pipelined) throws IOException {
+        Configuration config = new Configuration()
+            .set(MAPPERS_COUNT, 8)
+            .set(REDUCERS_COUNT, 1)
+            .set(WORKERS_COUNT, 4)
+            .set(SORTER_MERGE_FACTOR, 3)
+            .set(REDUCE_PIPELINED, pipelined);
+
+        JobResult jobResult = new MapReduceParallelRunner<String, Integer, String, Integer>()
+            .run(wordCountJob(new WordCountITCase.WordCountMapper()), inputFiles, config, mappersOutputPath, reducersOutputPath);
+
+        HashMap<String, Integer> result = new HashMap<>();
+        WordCountITCase.readResult(reducersOutputPath.resolve("output-0.txt").toString(), result);
+        assertEquals(Map.of("a", 8, "b", 16, "c", 24), result);
+        assertEquals(3, jobResult.getSlowestReduceTask().counters().get(TaskCounter.MERGE_PASSES));
+        assertEquals(48, jobResult.getCounters().get(TaskCounter.REDUCE_INPUT_RECORDS));
+        try (Stream<Path> mapperOutputs = Files.list(mappersOutputPath)) {
+            assertEquals(8, mapperOutputs.count());
+        }
+    }
+
+    @Test
+    public void testMapOutputsSpillByByteBudget() throws IOException {
+        Configuration config = new Configuration()
+            .set(MAPPERS_COUNT, 4)
+            .set(REDUCERS_COUNT, 2)
+            .set(WORKERS_COUNT, 4)
+            .set(SORTER_IN_MEMORY_BYTES, 6L);
+
+        JobResult jobResult = new MapReduceParallelRunner<String, Integer, String, Integer>()
+            .run(wordCountJob(new WordCountITCase.WordCountMapper()), inputFiles, config, mappersOutputPath, reducersOutputPath);
+
+        HashMap<String, Integer> result = new HashMap<>();
+        for (int i = 0; i < 2; ++i) {
+            WordCountITCase.readResult(reducersOutputPath.resolve("output-" + i + ".txt").toString(), result);
+        }
+        assertEquals(Map.of("a", 8, "b", 16, "c", 24), result);
+        assertTrue(jobResult.getCounters().get(TaskCounter.SPILL_COUNT) >= 8);
+    }
+
+    @Test
+    public void testFailedTaskIsPropagatedAndCleanedUp() throws IOException {
+        Mapper<String, String, String, Integer> failingMapper = (input, output) -> {
+            while (input.hasNext()) {
+                output.put(input.next().value(), 1);
+            }
+            throw new IllegalStateException("mapper failure");
+        };
+        Configuration config = new Configuration()
+            .set(MAPPERS_COUNT, 2)
+            .set(REDUCERS_COUNT, 2)
+            .set(WORKERS_COUNT, 2);
+
+        RuntimeException e = assertThrows(RuntimeException.class, () ->
+            new MapReduceParallelRunner<String, Integer, String, Integer>()
+                .run(wordCountJob(failingMapper), inputFiles, config, mappersOutputPath, reducersOutputPath));
+
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertFalse(Files.exists(reducersOutputPath.resolve("output-0.txt")));
+        try (Stream<Path> mapperOutputs = Files.list(mappersOutputPath)) {
+            assertEquals(List.of(), mapperOutputs.toList());
+        }
+    }
+
+    static class FlakyMapper implements Mapper<String, String, String, Integer> {
+        private final AtomicInteger failuresLeft;
+
+        FlakyMapper(int failures) {
+            this.failuresLeft = new AtomicInteger(failures);
+        }
+
+        @Override
+        public void map(Iterator<Pair<String, String>> input, OutputContext<String, Integer> output) {
+            new WordCountITCase.WordCountMapper().map(input, output);
+            if (failuresLeft.getAndDecrement() > 0) {
+                throw new IllegalStateException("transient mapper failure");
+            }
+        }
+    }
+
+    static class FailingWhileMarkerExistsReducer implements Reducer<String, Integer, String, Integer> {
+        private final String markerFile;
+
+        FailingWhileMarkerExistsReducer(String markerFile) {
+            this.markerFile = markerFile;
+        }
+
+        @Override
+        public void reduce(String key, Iterator<Integer> values, OutputContext<String, Integer> output) {
+            if (Files.exists(Path.of(markerFile))) {
+                throw new IllegalStateException("reducer failure");
+            }
+            new WordCountITCase.WordCountReducer().reduce(key, values, output);
+        }
+    }
+
+    @Test
+    public void testFailedAttemptsAreRetriedWithoutDoubleCounting() throws IOException {
+        Configuration config = new Configuration()
+            .set(MAPPERS_COUNT, 4)
+            .set(REDUCERS_COUNT, 2)
+            .set(WORKERS_COUNT, 2)
+            .set(TASK_MAX_ATTEMPTS, 3);
+
+        JobResult jobResult = new MapReduceParallelRunner<String, Integer, String, Integer>()
+            .run(wordCountJob(new FlakyMapper(2)), inputFiles, config, mappersOutputPath, reducersOutputPath);
+
+        HashMap<String, Integer> result = new HashMap<>();
+        for (int i = 0; i < 2; ++i) {
+            WordCountITCase.readResult(reducersOutputPath.resolve("output-" + i + ".txt").toString(), result);
+        }
+        assertEquals(Map.of("a", 8, "b", 16, "c", 24), result);
+        assertEquals(2, jobResult.getCounters().get(TaskCounter.FAILED_TASK_ATTEMPTS));
+        assertEquals(24, jobResult.getCounters().get(TaskCounter.MAP_INPUT_RECORDS));
+        assertEquals(48, jobResult.getCounters().get(TaskCounter.MAP_OUTPUT_RECORDS));
+    }
+
+    @Test
+    public void testResumedJobSkipsCommittedTasks() throws IOException {
+        Path markerFile = Files.createFile(mappersOutputPath.resolveSibling(mappersOutputPath.getFileName() + ".marker"));
+        MapReduceJob<String, Integer, String, Integer> job = wordCountJob(
+            new WordCountITCase.WordCountMapper(), new FailingWhileMarkerExistsReducer(markerFile.toString()));
+        Configuration config = new Configuration()
+            .set(MAPPERS_COUNT, 4)
+            .set(REDUCERS_COUNT, 2)
+            .set(WORKERS_COUNT, 2)
+            .set(TASK_MAX_ATTEMPTS, 1)
+            .set(JOB_RESUME, true);
+
+        assertThrows(RuntimeException.class, () -> new MapReduceParallelRunner<String, Integer, String, Integer>()
+            .run(job, inputFiles, config, mappersOutputPath, reducersOutputPath));
+        Files.delete(markerFile);
+        JobResult jobResult = new MapReduceParallelRunner<String, Integer, String, Integer>()
+            .run(job, inputFiles, config, mappersOutputPath, reducersOutputPath);
+
+        HashMap<String, Integer> result = new HashMap<>();
+        for (int i = 0; i < 2; ++i) {
+            WordCountITCase.readResult(reducersOutputPath.resolve("output-" + i + ".txt").toString(), result);
+        }
+        assertEquals(Map.of("a", 8, "b", 16, "c", 24), result);
+        for (TaskMetrics mapTask : jobResult.getMapTasks()) {
+            assertEquals(1, mapTask.counters().get(TaskCounter.RESUMED_TASKS));
+        }
+        assertEquals(0, jobResult.getCounters().get(TaskCounter.MAP_INPUT_RECORDS));
+        assertEquals(48, jobResult.getCounters().get(TaskCounter.REDUCE_INPUT_RECORDS));
+    }
+
+    private static MapReduceJob<String, Integer, String, Integer> wordCountJob(
+        Mapper<String, String, String, Integer> mapper
+    ) {
+        return wordCountJob(mapper, new WordCountITCase.WordCountReducer());
+    }
+
+    private static MapReduceJob<String, Integer, String, Integer> wordCountJob(
+        Mapper<String, String, String, Integer> mapper,
+        Reducer<String, Integer, String, Integer> reducer
+    ) {
+        return new MapReduceJob<>(
+            mapper,
+            reducer,
+            STRING_SERIALIZER,
+            INTEGER_SERIALIZER,
+            STRING_DESERIALIZER,
+            INTEGER_DESERIALIZER,
+            STRING_SERIALIZER,
+            INTEGER_SERIALIZER,
+            STRING_KEY_COMPARATOR,
+            STRING_KEY_HASH
+        );
+    }
+
+    private void deleteDirectory(Path path) throws IOException {
+        try (Stream<Path> pathStream = Files.walk(path)) {
+            pathStream.sorted(Comparator.reverseOrder())
+                .map(Path::toFile)
+                .forEach(File::delete);
+        }
+    }
+}
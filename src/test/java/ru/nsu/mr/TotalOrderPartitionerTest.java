@@ -0,0 +1,29 @@
+package ru.nsu.mr;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TotalOrderPartitionerTest {
+    @Test
+    public void testKeysAreRoutedBySplitPoints() {
+        TotalOrderPartitioner<Integer> partitioner = new TotalOrderPartitioner<>(Integer::compareTo, List.of(10, 20, 30));
+
+        assertEquals(0, partitioner.getPartition(-5, 4));
+        assertEquals(0, partitioner.getPartition(9, 4));
+        assertEquals(1, partitioner.getPartition(10, 4));
+        assertEquals(1, partitioner.getPartition(19, 4));
+        assertEquals(2, partitioner.getPartition(20, 4));
+        assertEquals(3, partitioner.getPartition(30, 4));
+        assertEquals(3, partitioner.getPartition(1000, 4));
+    }
+
+    @Test
+    public void testUnsampledPartitionerIsRejected() {
+        TotalOrderPartitioner<Integer> partitioner = new TotalOrderPartitioner<>(100);
+
+        assertThrows(IllegalStateException.class, () -> partitioner.getPartition(1, 2));
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import ru.nsu.mr.config.Configuration;
+import ru.nsu.mr.sources.BinaryKeyValueFileIterator;
 
 import java.io.*;
 import java.nio.file.Files;
@@ -90,7 +91,7 @@ class WordCountITCase {
         HashMap<String, Integer> mappersResult = new HashMap<>();
         for (int i = 0; i < mappersCount; ++i) {
             for (int j = 0; j < reducersCount; ++j) {
-                readResult(mappersOutputPath.toString() + "/mapper-output-" + i + "-" + j + ".txt", mappersResult);
+                readMapperResult(job, mappersOutputPath.resolve("mapper-output-" + i + "-" + j + ".bin"), mappersResult);
             }
         }
         for (String word : testConfig.WORDS) {
@@ -108,6 +109,20 @@ class WordCountITCase {
         }
     }
 
+    public static void readMapperResult(
+        MapReduceJob<String, Integer, ?, ?> job,
+        Path path,
+        Map<String, Integer> result
+    ) throws IOException {
+        try (BinaryKeyValueFileIterator<String, Integer> iterator = new BinaryKeyValueFileIterator<>(
+                path, job.getBinaryDeserializerInterKey(), job.getBinaryDeserializerInterValue())) {
+            while (iterator.hasNext()) {
+                Pair<String, Integer> record = iterator.next();
+                result.merge(record.key(), record.value(), Integer::sum);
+            }
+        }
+    }
+
     public static void readResult(String filename, Map<String, Integer> result) throws IOException {
         BufferedReader reader = new BufferedReader(new FileReader(filename));
         String line;
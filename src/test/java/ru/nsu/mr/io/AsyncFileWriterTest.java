@@ -0,0 +1,63 @@
+package ru.nsu.mr.io;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncFileWriterTest {
+    private Path tempFile;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        tempFile = Files.createTempFile("testAsyncWriter", ".bin");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(tempFile);
+    }
+
+    @Test
+    public void testWritesSpanningManyBuffers() throws IOException {
+        byte[] content = new byte[100_000];
+        for (int i = 0; i < content.length; ++i) {
+            content[i] = (byte) (i * 31);
+        }
+
+        AsyncFileWriter writer = new AsyncFileWriter(FileChannel.open(tempFile, StandardOpenOption.WRITE), 1000);
+        for (int offset = 0; offset < content.length; offset += 777) {
+            ByteBuffer chunk = ByteBuffer.wrap(content, offset, Math.min(777, content.length - offset));
+            assertEquals(chunk.remaining(), writer.write(chunk));
+            assertFalse(chunk.hasRemaining());
+        }
+        writer.close();
+
+        assertArrayEquals(content, Files.readAllBytes(tempFile));
+        assertFalse(writer.isOpen());
+        assertThrows(ClosedChannelException.class, () -> writer.write(ByteBuffer.allocate(1)));
+    }
+
+    @Test
+    public void testWriteFailureIsReportedToCaller() throws IOException {
+        AsyncFileWriter writer = new AsyncFileWriter(FileChannel.open(tempFile, StandardOpenOption.READ), 16);
+
+        assertThrows(IOException.class, () -> {
+            try (writer) {
+                for (int i = 0; i < 100; ++i) {
+                    writer.write(ByteBuffer.allocate(10));
+                }
+            }
+        });
+        assertEquals(0, Files.size(tempFile));
+    }
+}
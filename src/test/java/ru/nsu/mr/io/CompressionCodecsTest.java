@@ -0,0 +1,45 @@
+package ru.nsu.mr.io;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressionCodecsTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"none", "deflate", "lz"})
+    public void testRoundTrip(String codecName) throws IOException {
+        CompressionCodec codec = CompressionCodecs.forName(codecName);
+        assertSame(codec, CompressionCodecs.forId(codec.getId()));
+
+        Random random = new Random(42);
+        byte[] randomBytes = new byte[100_000];
+        random.nextBytes(randomBytes);
+        byte[] repetitive = "apple banana apple orange apple ".repeat(5000).getBytes(StandardCharsets.UTF_8);
+        byte[] runs = new byte[70_000];
+        Arrays.fill(runs, 20_000, 50_000, (byte) 7);
+
+        for (byte[] input : new byte[][]{new byte[0], new byte[]{1, 2, 3}, randomBytes, repetitive, runs}) {
+            byte[] compressed = new byte[3 + codec.maxCompressedLength(input.length)];
+            int compressedLength = codec.compress(input, 0, input.length, compressed, 3);
+            byte[] restored = new byte[input.length + 5];
+            codec.decompress(compressed, 3, compressedLength, restored, 5, input.length);
+            assertArrayEquals(input, Arrays.copyOfRange(restored, 5, restored.length));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"deflate", "lz"})
+    public void testRepetitiveDataShrinks(String codecName) {
+        CompressionCodec codec = CompressionCodecs.forName(codecName);
+        byte[] input = "key:1 1\nkey:2 1\n".repeat(4096).getBytes(StandardCharsets.UTF_8);
+        byte[] compressed = new byte[codec.maxCompressedLength(input.length)];
+        assertTrue(codec.compress(input, 0, input.length, compressed, 0) < input.length / 3);
+    }
+}
@@ -0,0 +1,55 @@
+package ru.nsu.mr.io;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedFileReaderTest {
+    private Path tempFile;
+    private byte[] content;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        tempFile = Files.createTempFile("testMappedFile", ".bin");
+        content = new byte[1000];
+        for (int i = 0; i < content.length; ++i) {
+            content[i] = (byte) i;
+        }
+        Files.write(tempFile, content);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(tempFile);
+    }
+
+    @Test
+    public void testReadsAcrossWindows() throws IOException {
+        try (MappedFileReader reader = new MappedFileReader(tempFile, 3, 64)) {
+            for (int i = 3; i < content.length; i += 10) {
+                int chunk = Math.min(10, content.length - i);
+                assertTrue(reader.ensureAvailable(chunk));
+                assertEquals(i, reader.position());
+                for (int j = 0; j < chunk; ++j) {
+                    assertEquals(content[i + j], reader.buffer().get());
+                }
+            }
+            assertFalse(reader.ensureAvailable(1));
+        }
+    }
+
+    @Test
+    public void testWindowGrowsForLargeRequests() throws IOException {
+        try (MappedFileReader reader = new MappedFileReader(tempFile, 0, 16)) {
+            assertTrue(reader.ensureAvailable(500));
+            assertFalse(reader.ensureAvailable(1001));
+            assertEquals(content.length, reader.buffer().remaining());
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package ru.nsu.mr.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.nsu.mr.PredefinedFunctions.*;
+
+class TextEncodingTest {
+    @Test
+    public void testUtf8MatchesStringEncoding() {
+        for (String text : List.of("", "ascii", "\u00e9\u07ff", "\u0800\ud7ff\ue000\uffff", "\ud83d\ude00\ud800\udc00",
+                "\ud800", "x\udc00y", "\ud83d\ud83d\ude00")) {
+            byte[] expected = text.getBytes(StandardCharsets.UTF_8);
+            ByteBuffer output = ByteBuffer.allocate(64);
+            assertEquals(expected.length, TextEncoding.utf8Size(text));
+            TextEncoding.writeUtf8(output, text);
+            assertArrayEquals(expected, Arrays.copyOf(output.array(), output.position()), text);
+        }
+    }
+
+    @Test
+    public void testDecimalMatchesToString() {
+        for (long value : new long[] {0, 1, -1, 9, 10, -99, 100, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            ByteBuffer output = ByteBuffer.allocate(32).position(3);
+            assertEquals(Long.toString(value).length(), TextEncoding.decimalSize(value));
+            TextEncoding.writeDecimal(output, value);
+            assertEquals(Long.toString(value),
+                new String(output.array(), 3, output.position() - 3, StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Test
+    public void testEncodeToLeavesBufferUntouchedWhenFull() {
+        ByteBuffer output = ByteBuffer.allocate(5).position(2);
+
+        assertFalse(INTEGER_SERIALIZER.encodeTo(-1000, output));
+        assertFalse(STRING_SERIALIZER.encodeTo("\u20ac\u20ac", output));
+        assertEquals(2, output.position());
+        assertTrue(LONG_SERIALIZER.encodeTo(-10L, output));
+        assertEquals(5, output.position());
+    }
+}
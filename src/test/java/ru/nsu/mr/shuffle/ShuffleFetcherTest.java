@@ -0,0 +1,118 @@
+package ru.nsu.mr.shuffle;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.nsu.mr.Pair;
+import ru.nsu.mr.io.CompressionCodecs;
+import ru.nsu.mr.sinks.BinaryFileSink;
+import ru.nsu.mr.sources.BinaryKeyValueFileIterator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.nsu.mr.PredefinedFunctions.*;
+
+public class ShuffleFetcherTest {
+    private Path servedDirectory;
+    private Path spillDirectory;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        servedDirectory = Files.createTempDirectory("served");
+        spillDirectory = Files.createTempDirectory("spills");
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        deleteDirectory(servedDirectory);
+        deleteDirectory(spillDirectory);
+    }
+
+    @Test
+    public void testSmallPartitionsStayInMemoryAndLargeOnesSpill() throws IOException {
+        List<Path> partitions = new ArrayList<>();
+        for (int i = 0; i < 6; ++i) {
+            partitions.add(writePartition("mapper-output-" + i + "-0.bin", i == 5 ? 20_000 : 10));
+        }
+
+        try (ShuffleServer server = new ShuffleServer(servedDirectory)) {
+            ShuffleFetcher fetcher = new ShuffleFetcher(3, 64 * 1024, spillDirectory);
+            List<ShuffleSegment> segments = fetcher.fetch(partitions.stream().map(server::locate).toList());
+
+            assertEquals(6, segments.size());
+            for (int i = 0; i < 6; ++i) {
+                ShuffleSegment segment = segments.get(i);
+                assertEquals(i != 5, segment.isInMemory());
+                assertEquals(Files.size(partitions.get(i)), segment.size());
+                assertEquals(readRecords(partitions.get(i)), readRecords(segment));
+            }
+            assertEquals(5 * Files.size(partitions.getFirst()), fetcher.getReservedMemory());
+        }
+    }
+
+    @Test
+    public void testMissingPartitionFailsFetch() throws IOException {
+        Path partition = writePartition("mapper-output-0-0.bin", 10);
+
+        try (ShuffleServer server = new ShuffleServer(servedDirectory)) {
+            ShuffleFetcher fetcher = new ShuffleFetcher(2, 64 * 1024, spillDirectory);
+            List<ShuffleLocation> locations = List.of(
+                server.locate(partition),
+                server.locate(servedDirectory.resolve("mapper-output-1-0.bin")),
+                new ShuffleLocation(server.getAddress().getAddress().getHostAddress(),
+                    server.getAddress().getPort(), "../outside.bin"));
+
+            assertThrows(IOException.class, () -> fetcher.fetch(locations.subList(0, 2)));
+            assertThrows(IOException.class, () -> fetcher.fetch(List.of(locations.get(2))));
+        }
+    }
+
+    private Path writePartition(String name, int recordsCount) throws IOException {
+        Path partition = servedDirectory.resolve(name);
+        try (BinaryFileSink<String, Integer> sink = new BinaryFileSink<>(
+                STRING_BINARY_SERIALIZER, INTEGER_BINARY_SERIALIZER, partition, CompressionCodecs.NONE)) {
+            for (int i = 0; i < recordsCount; ++i) {
+                sink.put(String.format("key%06d", i), i);
+            }
+        }
+        return partition;
+    }
+
+    private static List<Pair<String, Integer>> readRecords(Path partition) throws IOException {
+        try (BinaryKeyValueFileIterator<String, Integer> iterator = new BinaryKeyValueFileIterator<>(
+                partition, STRING_BINARY_DESERIALIZER, INTEGER_BINARY_DESERIALIZER)) {
+            return drain(iterator);
+        }
+    }
+
+    private static List<Pair<String, Integer>> readRecords(ShuffleSegment segment) throws IOException {
+        try (BinaryKeyValueFileIterator<String, Integer> iterator =
+                 segment.open(STRING_BINARY_DESERIALIZER, INTEGER_BINARY_DESERIALIZER)) {
+            return drain(iterator);
+        }
+    }
+
+    private static List<Pair<String, Integer>> drain(BinaryKeyValueFileIterator<String, Integer> iterator) {
+        List<Pair<String, Integer>> records = new ArrayList<>();
+        while (iterator.hasNext()) {
+            records.add(iterator.next());
+        }
+        return records;
+    }
+
+    private void deleteDirectory(Path path) throws IOException {
+        try (Stream<Path> pathStream = Files.walk(path)) {
+            pathStream.sorted(Comparator.reverseOrder())
+                .map(Path::toFile)
+                .forEach(File::delete);
+        }
+    }
+}
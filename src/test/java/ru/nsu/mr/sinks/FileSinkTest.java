@@ -5,11 +5,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static ru.nsu.mr.PredefinedFunctions.*;
 
 class FileSinkTest {
     private Path tempFile;
@@ -40,6 +43,49 @@ class FileSinkTest {
         assertEquals("key3 value3", lines.get(2));
     }
 
+    @Test
+    public void testAsyncWriterKeepsLineOrder() throws IOException {
+        try (FileSink<String, String> asyncSink = new FileSink<>(input -> input, input -> input, tempFile, 64)) {
+            for (int i = 0; i < 1000; ++i) {
+                asyncSink.put("key" + i, "value" + i);
+            }
+        }
+        List<String> lines = Files.readAllLines(tempFile);
+        assertEquals(1000, lines.size());
+        for (int i = 0; i < 1000; ++i) {
+            assertEquals("key" + i + " value" + i, lines.get(i));
+        }
+    }
+
+    @Test
+    public void testPredefinedSerializersMatchTheirStringForm() throws IOException {
+        List<Long> numbers = List.of(0L, 7L, -7L, 10L, -10L, 1234567890123L, Long.MAX_VALUE, Long.MIN_VALUE);
+        List<String> words = List.of("", "plain", "\u00e9t\u00e9", "\u0800\uffff", "\ud83d\ude00", "lone\ud800", "\udc00x");
+        List<String> expected = new ArrayList<>();
+        try (FileSink<String, Long> sink = new FileSink<>(STRING_SERIALIZER, LONG_SERIALIZER, tempFile)) {
+            for (String word : words) {
+                for (Long number : numbers) {
+                    sink.put(word, number);
+                    expected.add(word + " " + number);
+                }
+            }
+        }
+        assertArrayEquals(String.join(System.lineSeparator(), expected).concat(System.lineSeparator())
+            .getBytes(StandardCharsets.UTF_8), Files.readAllBytes(tempFile));
+    }
+
+    @Test
+    public void testRecordLargerThanBuffer() throws IOException {
+        String longKey = "k".repeat(200_000);
+        try (FileSink<String, Integer> sink = new FileSink<>(STRING_SERIALIZER, INTEGER_SERIALIZER, tempFile)) {
+            sink.put("short", Integer.MIN_VALUE);
+            sink.put(longKey, Integer.MAX_VALUE);
+            sink.put("after", 0);
+        }
+        assertEquals(List.of("short " + Integer.MIN_VALUE, longKey + " " + Integer.MAX_VALUE, "after 0"),
+            Files.readAllLines(tempFile));
+    }
+
     @Test
     public void testCloseWithoutPut() throws IOException {
         fileSink.close();
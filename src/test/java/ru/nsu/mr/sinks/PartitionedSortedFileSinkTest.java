@@ -0,0 +1,125 @@
+package ru.nsu.mr.sinks;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.nsu.mr.Pair;
+import ru.nsu.mr.SizeEstimator;
+import ru.nsu.mr.sources.BinaryKeyValueFileIterator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.nsu.mr.PredefinedFunctions.INTEGER_BINARY_DESERIALIZER;
+import static ru.nsu.mr.PredefinedFunctions.INTEGER_BINARY_SERIALIZER;
+
+class PartitionedSortedFileSinkTest {
+    private final int sinksCount = 3;
+    private Path outputDirectory;
+    private List<Path> outputFiles;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        outputDirectory = Files.createTempDirectory("partitioned_sorted_output");
+        outputFiles = new ArrayList<>();
+        for (int i = 0; i < sinksCount; ++i) {
+            outputFiles.add(outputDirectory.resolve("output-" + i + ".bin"));
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        try (Stream<Path> pathStream = Files.walk(outputDirectory)) {
+            pathStream.sorted(Comparator.reverseOrder())
+                .map(Path::toFile)
+                .forEach(File::delete);
+        }
+    }
+
+    @Test
+    public void testSharedByteBudgetSpillsAllPartitions() throws IOException {
+        List<SortedFileSink<Integer, Integer>> sinks = new ArrayList<>();
+        for (Path outputFile : outputFiles) {
+            sinks.add(new SortedFileSink<>(
+                INTEGER_BINARY_SERIALIZER,
+                INTEGER_BINARY_SERIALIZER,
+                INTEGER_BINARY_DESERIALIZER,
+                INTEGER_BINARY_DESERIALIZER,
+                outputFile,
+                100_000,
+                Integer::compareTo
+            ));
+        }
+
+        SizeEstimator<Integer, Integer> serializedSize =
+            SizeEstimator.serializedSize(INTEGER_BINARY_SERIALIZER, INTEGER_BINARY_SERIALIZER);
+        try (PartitionedSortedFileSink<Integer, Integer> sink = new PartitionedSortedFileSink<>(sinks, key -> key, 100_000)
+                .setMemoryBudget(8 * 300, serializedSize)) {
+            for (int number = 0; number < 3000; ++number) {
+                sink.put(number, number);
+            }
+        }
+
+        for (int i = 0; i < sinksCount; ++i) {
+            assertEquals(10, sinks.get(i).getSpillCount());
+            try (BinaryKeyValueFileIterator<Integer, Integer> iterator = new BinaryKeyValueFileIterator<>(
+                    outputFiles.get(i), INTEGER_BINARY_DESERIALIZER, INTEGER_BINARY_DESERIALIZER)) {
+                for (int j = 0; j < 1000; ++j) {
+                    int expected = j * sinksCount + i;
+                    assertEquals(new Pair<>(expected, expected), iterator.next());
+                }
+                assertFalse(iterator.hasNext());
+            }
+        }
+    }
+
+    @Test
+    public void testPartitionsAreSortedAfterSpills() throws IOException {
+        List<SortedFileSink<Integer, Integer>> sinks = new ArrayList<>();
+        for (Path outputFile : outputFiles) {
+            sinks.add(new SortedFileSink<>(
+                INTEGER_BINARY_SERIALIZER,
+                INTEGER_BINARY_SERIALIZER,
+                INTEGER_BINARY_DESERIALIZER,
+                INTEGER_BINARY_DESERIALIZER,
+                outputFile,
+                100,
+                Integer::compareTo
+            ));
+        }
+
+        List<Integer> numbers = new ArrayList<>();
+        for (int i = 0; i < 3000; ++i) {
+            numbers.add(i);
+        }
+        Collections.shuffle(numbers);
+
+        try (PartitionedSortedFileSink<Integer, Integer> sink = new PartitionedSortedFileSink<>(sinks, key -> key, 100)) {
+            for (Integer number : numbers) {
+                sink.put(number, number);
+            }
+        }
+
+        try (Stream<Path> files = Files.list(outputDirectory)) {
+            assertEquals(sinksCount, files.count());
+        }
+        for (int i = 0; i < sinksCount; ++i) {
+            try (BinaryKeyValueFileIterator<Integer, Integer> iterator = new BinaryKeyValueFileIterator<>(
+                    outputFiles.get(i), INTEGER_BINARY_DESERIALIZER, INTEGER_BINARY_DESERIALIZER)) {
+                for (int j = 0; j < 1000; ++j) {
+                    int expected = j * sinksCount + i;
+                    assertEquals(new Pair<>(expected, expected), iterator.next());
+                }
+                assertFalse(iterator.hasNext());
+            }
+        }
+    }
+}
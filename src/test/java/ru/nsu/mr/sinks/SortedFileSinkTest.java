@@ -3,6 +3,13 @@ package ru.nsu.mr.sinks;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.nsu.mr.Counters;
+import ru.nsu.mr.Pair;
+import ru.nsu.mr.SizeEstimator;
+import ru.nsu.mr.io.CompressionCodecs;
+import ru.nsu.mr.sources.BinaryKeyValueFileIterator;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -10,8 +17,10 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static ru.nsu.mr.PredefinedFunctions.*;
 
 class SortedFileSinkTest {
     private Path outputFilePath;
@@ -20,11 +29,11 @@ class SortedFileSinkTest {
     @BeforeEach
     public void setUp() throws IOException {
         outputFilePath = Files.createTempFile("sorted_output", ".txt");
-        sortedFileSink = new SortedFileSink<Integer, Integer>(
-            Object::toString,
-            Object::toString,
-            Integer::parseInt,
-            Integer::parseInt,
+        sortedFileSink = new SortedFileSink<>(
+            INTEGER_BINARY_SERIALIZER,
+            INTEGER_BINARY_SERIALIZER,
+            INTEGER_BINARY_DESERIALIZER,
+            INTEGER_BINARY_DESERIALIZER,
             outputFilePath,
             1000,
             Integer::compareTo
@@ -50,6 +59,233 @@ class SortedFileSinkTest {
         }
     }
 
+    @Test
+    public void testCombinerIsAppliedToSpillsAndMerge() throws IOException {
+        Counters counters = new Counters();
+        SortedFileSink<Integer, Integer> combiningSink = new SortedFileSink<>(
+            INTEGER_BINARY_SERIALIZER,
+            INTEGER_BINARY_SERIALIZER,
+            INTEGER_BINARY_DESERIALIZER,
+            INTEGER_BINARY_DESERIALIZER,
+            outputFilePath,
+            100,
+            Integer::compareTo,
+            (key, values, output) -> {
+                int sum = 0;
+                while (values.hasNext()) {
+                    sum += values.next();
+                }
+                output.put(key, sum);
+                output.increment("combined-groups", 1);
+            }
+        ).setCounters(counters);
+        for (Integer number : generateMixedNumbers(1, 1000)) {
+            combiningSink.put(number % 10, 1);
+        }
+        combiningSink.close();
+
+        List<Pair<Integer, Integer>> records = readRecordsFromFile(outputFilePath);
+        assertEquals(10, records.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(new Pair<>(i, 100), records.get(i));
+        }
+        assertEquals(110, counters.get("combined-groups"));
+    }
+
+    @Test
+    public void testMultiPassMergeWithSmallMergeFactor() throws IOException {
+        Path directory = Files.createTempDirectory("sorted_output");
+        Path output = directory.resolve("output.bin");
+        SortedFileSink<Integer, Integer> sink = new SortedFileSink<>(
+            INTEGER_BINARY_SERIALIZER,
+            INTEGER_BINARY_SERIALIZER,
+            INTEGER_BINARY_DESERIALIZER,
+            INTEGER_BINARY_DESERIALIZER,
+            output,
+            100,
+            Integer::compareTo,
+            null,
+            CompressionCodecs.NONE,
+            3
+        );
+        for (Integer number : generateMixedNumbers(1, 5000)) {
+            sink.put(number, number);
+        }
+        sink.close();
+
+        List<Integer> sortedNumbers = readSortedNumbersFromFile(output);
+        assertEquals(5000, sortedNumbers.size());
+        for (int i = 0; i < sortedNumbers.size(); i++) {
+            assertEquals(i + 1, sortedNumbers.get(i));
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of(output), files.toList());
+        }
+        Files.delete(output);
+        Files.delete(directory);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"none", "lz"})
+    public void testAsyncWriterProducesSortedOutput(String codecName) throws IOException {
+        Path directory = Files.createTempDirectory("sorted_output");
+        Path output = directory.resolve("output.bin");
+        SortedFileSink<Integer, Integer> sink = new SortedFileSink<>(
+            INTEGER_BINARY_SERIALIZER,
+            INTEGER_BINARY_SERIALIZER,
+            INTEGER_BINARY_DESERIALIZER,
+            INTEGER_BINARY_DESERIALIZER,
+            output,
+            1000,
+            Integer::compareTo,
+            null,
+            CompressionCodecs.forName(codecName),
+            3
+        ).setAsyncBufferSize(4096);
+        for (Integer number : generateMixedNumbers(1, 50000)) {
+            sink.put(number, number);
+        }
+        sink.close();
+
+        List<Integer> sortedNumbers = readSortedNumbersFromFile(output);
+        assertEquals(50000, sortedNumbers.size());
+        for (int i = 0; i < sortedNumbers.size(); i++) {
+            assertEquals(i + 1, sortedNumbers.get(i));
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of(output), files.toList());
+        }
+        Files.delete(output);
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testByteBudgetDrivesSpills() throws IOException {
+        SortedFileSink<Integer, Integer> serializedSizeSink = new SortedFileSink<>(
+            INTEGER_BINARY_SERIALIZER,
+            INTEGER_BINARY_SERIALIZER,
+            INTEGER_BINARY_DESERIALIZER,
+            INTEGER_BINARY_DESERIALIZER,
+            outputFilePath,
+            100_000,
+            Integer::compareTo
+        ).setMemoryBudget(8 * 250, SizeEstimator.serializedSize(INTEGER_BINARY_SERIALIZER, INTEGER_BINARY_SERIALIZER));
+        for (Integer number : generateMixedNumbers(1, 1000)) {
+            serializedSizeSink.put(number, number);
+        }
+        serializedSizeSink.close();
+        assertEquals(4, serializedSizeSink.getSpillCount());
+        assertEquals(1000, readSortedNumbersFromFile(outputFilePath).size());
+
+        SortedFileSink<Integer, Integer> estimatedSizeSink = new SortedFileSink<>(
+            INTEGER_BINARY_SERIALIZER,
+            INTEGER_BINARY_SERIALIZER,
+            INTEGER_BINARY_DESERIALIZER,
+            INTEGER_BINARY_DESERIALIZER,
+            outputFilePath,
+            100_000,
+            Integer::compareTo
+        ).setMemoryBudget(1000, (key, value) -> key <= 500 ? 1 : 100);
+        for (int number = 1; number <= 1000; number++) {
+            estimatedSizeSink.put(number, number);
+        }
+        estimatedSizeSink.close();
+        assertEquals(50, estimatedSizeSink.getSpillCount());
+        List<Integer> sortedNumbers = readSortedNumbersFromFile(outputFilePath);
+        for (int i = 0; i < sortedNumbers.size(); i++) {
+            assertEquals(i + 1, sortedNumbers.get(i));
+        }
+    }
+
+    @Test
+    public void testHeapThresholdSpillsBeforeRecordLimit() throws IOException {
+        SortedFileSink<Integer, Integer> sink = new SortedFileSink<>(
+            INTEGER_BINARY_SERIALIZER,
+            INTEGER_BINARY_SERIALIZER,
+            INTEGER_BINARY_DESERIALIZER,
+            INTEGER_BINARY_DESERIALIZER,
+            outputFilePath,
+            100_000,
+            Integer::compareTo
+        ).setHeapSpillThreshold(1e-9, 2048);
+        // Heap usage is sampled after the last collection, make sure there is one.
+        System.gc();
+        for (Integer number : generateMixedNumbers(1, 5000)) {
+            sink.put(number, number);
+        }
+        sink.close();
+
+        assertEquals(2, sink.getSpillCount());
+        assertEquals(5000, readSortedNumbersFromFile(outputFilePath).size());
+    }
+
+    @Test
+    public void testPrimitiveValuesKeepInsertionOrderForEqualKeys() throws IOException {
+        SortedFileSink<Integer, Integer> sink = new SortedFileSink<>(
+            INTEGER_BINARY_SERIALIZER,
+            INTEGER_BINARY_SERIALIZER,
+            INTEGER_BINARY_DESERIALIZER,
+            INTEGER_BINARY_DESERIALIZER,
+            outputFilePath,
+            2000,
+            Integer::compareTo
+        );
+        for (int i = 0; i < 1000; i++) {
+            sink.putInt(9 - i % 10, i);
+        }
+        sink.close();
+
+        List<Pair<Integer, Integer>> records = readRecordsFromFile(outputFilePath);
+        assertEquals(0, sink.getSpillCount());
+        assertEquals(1000, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            int key = i / 100;
+            assertEquals(key, records.get(i).key());
+            assertEquals((9 - key) + 10 * (i % 100), records.get(i).value());
+        }
+    }
+
+    @Test
+    public void testRawComparatorMatchesStringOrder() throws IOException {
+        Path directory = Files.createTempDirectory("sorted_output");
+        Path output = directory.resolve("output.bin");
+        SortedFileSink<String, Integer> sink = new SortedFileSink<>(
+            STRING_BINARY_SERIALIZER,
+            INTEGER_BINARY_SERIALIZER,
+            STRING_BINARY_DESERIALIZER,
+            INTEGER_BINARY_DESERIALIZER,
+            output,
+            7,
+            STRING_KEY_COMPARATOR,
+            null,
+            CompressionCodecs.NONE,
+            2,
+            STRING_RAW_COMPARATOR
+        );
+        List<String> keys = new ArrayList<>(List.of("", "a", "ab", "b", "ba", "\u00e9", "\u0800", "\ud7ff",
+            "\ue000", "\uffff", "\ud83d\ude00", "\ud800\udc00", "z\ud83d\ude00", "z\uffff"));
+        for (int i = 0; i < 50; i++) {
+            keys.add("key" + i);
+        }
+        Collections.shuffle(keys);
+        for (int i = 0; i < keys.size(); i++) {
+            sink.put(keys.get(i), i);
+        }
+        sink.close();
+
+        List<String> sortedKeys = new ArrayList<>();
+        try (BinaryKeyValueFileIterator<String, Integer> iterator = new BinaryKeyValueFileIterator<>(
+                output, STRING_BINARY_DESERIALIZER, INTEGER_BINARY_DESERIALIZER)) {
+            while (iterator.hasNext()) {
+                sortedKeys.add(iterator.next().key());
+            }
+        }
+        keys.sort(STRING_KEY_COMPARATOR);
+        assertEquals(keys, sortedKeys);
+        Files.delete(output);
+        Files.delete(directory);
+    }
+
     private List<Integer> generateMixedNumbers(int start, int end) {
         List<Integer> numbers = new ArrayList<>();
         for (int i = start; i <= end; i++) {
@@ -61,11 +297,20 @@ class SortedFileSinkTest {
 
     private List<Integer> readSortedNumbersFromFile(Path filePath) throws IOException {
         List<Integer> numbers = new ArrayList<>();
-        List<String> lines = Files.readAllLines(filePath);
-        for (String line : lines) {
-            String[] parts = line.split(" ");
-            numbers.add(Integer.parseInt(parts[0]));
+        for (Pair<Integer, Integer> record : readRecordsFromFile(filePath)) {
+            numbers.add(record.key());
         }
         return numbers;
     }
+
+    private List<Pair<Integer, Integer>> readRecordsFromFile(Path filePath) throws IOException {
+        List<Pair<Integer, Integer>> records = new ArrayList<>();
+        try (BinaryKeyValueFileIterator<Integer, Integer> iterator = new BinaryKeyValueFileIterator<>(
+                filePath, INTEGER_BINARY_DESERIALIZER, INTEGER_BINARY_DESERIALIZER)) {
+            while (iterator.hasNext()) {
+                records.add(iterator.next());
+            }
+        }
+        return records;
+    }
 }
\ No newline at end of file
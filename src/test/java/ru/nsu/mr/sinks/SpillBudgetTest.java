@@ -0,0 +1,56 @@
+package ru.nsu.mr.sinks;
+
+import org.junit.jupiter.api.Test;
+import ru.nsu.mr.SizeEstimator;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.nsu.mr.PredefinedFunctions.INTEGER_BINARY_SERIALIZER;
+import static ru.nsu.mr.PredefinedFunctions.STRING_BINARY_SERIALIZER;
+
+class SpillBudgetTest {
+    @Test
+    public void testHeapThresholdNeedsMinimumBufferedRecords() {
+        AtomicInteger heapChecks = new AtomicInteger();
+        SpillBudget<Integer, Integer> budget = new SpillBudget<>(100_000, () -> {
+            heapChecks.incrementAndGet();
+            return 0.9;
+        });
+        budget.setHeapThreshold(0.75, 3000);
+
+        assertEquals(3072, addUntilSpill(budget));
+        assertEquals(1, heapChecks.get());
+        budget.reset();
+        assertEquals(3072, addUntilSpill(budget));
+    }
+
+    @Test
+    public void testHeapBelowThresholdDoesNotSpill() {
+        SpillBudget<Integer, Integer> budget = new SpillBudget<>(10_000, () -> 0.5);
+        budget.setHeapThreshold(0.75, 0);
+
+        assertEquals(10_000, addUntilSpill(budget));
+    }
+
+    @Test
+    public void testPredefinedTypesAreSizedWithoutSerializing() {
+        SizeEstimator<String, Integer> estimator = SizeEstimator.serializedSize(
+            STRING_BINARY_SERIALIZER,
+            value -> {
+                throw new AssertionError("serialized " + value);
+            });
+
+        assertEquals(5 + Integer.BYTES, estimator.estimate("hello", 42));
+        assertEquals(Integer.BYTES, SizeEstimator.serializedSize(
+            (String key) -> new byte[3], INTEGER_BINARY_SERIALIZER).estimate("", 1));
+    }
+
+    private int addUntilSpill(SpillBudget<Integer, Integer> budget) {
+        int records = 0;
+        while (!budget.add(records, records)) {
+            ++records;
+        }
+        return records + 1;
+    }
+}
@@ -0,0 +1,108 @@
+package ru.nsu.mr.sources;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import ru.nsu.mr.KeyValue;
+import ru.nsu.mr.Pair;
+import ru.nsu.mr.io.CompressionCodecs;
+import ru.nsu.mr.io.RawBytes;
+import ru.nsu.mr.sinks.BinaryFileSink;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static ru.nsu.mr.PredefinedFunctions.*;
+
+public class BinaryKeyValueFileIteratorTest {
+
+    private Path tempFile;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        tempFile = Files.createTempFile("testBinaryKeyValueFile", ".bin");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"none", "deflate", "lz"})
+    public void testRoundTripWithSpacesAndLargeRecords(String codecName) throws IOException {
+        List<Pair<String, Integer>> expected = new ArrayList<>();
+        expected.add(new Pair<>("key with spaces", 1));
+        expected.add(new Pair<>("", -2));
+        expected.add(new Pair<>("x".repeat(200_000), Integer.MAX_VALUE));
+        for (int i = 0; i < 10_000; ++i) {
+            expected.add(new Pair<>("key" + i, i));
+        }
+
+        try (BinaryFileSink<String, Integer> sink = new BinaryFileSink<>(
+                STRING_BINARY_SERIALIZER, INTEGER_BINARY_SERIALIZER, tempFile, CompressionCodecs.forName(codecName))) {
+            for (Pair<String, Integer> record : expected) {
+                sink.put(record.key(), record.value());
+            }
+        }
+
+        List<Pair<String, Integer>> actual = new ArrayList<>();
+        try (BinaryKeyValueFileIterator<String, Integer> iterator = new BinaryKeyValueFileIterator<>(
+                tempFile, STRING_BINARY_DESERIALIZER, INTEGER_BINARY_DESERIALIZER)) {
+            while (iterator.hasNext()) {
+                actual.add(iterator.next());
+            }
+        }
+        assertEquals(expected, actual);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"none", "lz"})
+    public void testReusedRecordsAreRefilledInPlace(String codecName) throws IOException {
+        List<Pair<String, Integer>> expected = new ArrayList<>();
+        for (int i = 0; i < 20_000; ++i) {
+            expected.add(new Pair<>("key" + i + "x".repeat(i % 300), i));
+        }
+        try (BinaryFileSink<String, Integer> sink = new BinaryFileSink<>(
+                STRING_BINARY_SERIALIZER, INTEGER_BINARY_SERIALIZER, tempFile, CompressionCodecs.forName(codecName))) {
+            for (Pair<String, Integer> record : expected) {
+                sink.put(record.key(), record.value());
+            }
+        }
+
+        List<Pair<String, Integer>> actual = new ArrayList<>();
+        KeyValue<ByteBuffer, ByteBuffer> firstRecord = null;
+        try (BinaryKeyValueFileIterator<ByteBuffer, ByteBuffer> iterator = new BinaryKeyValueFileIterator<>(
+                tempFile, RawBytes.DESERIALIZER, RawBytes.DESERIALIZER).reuseRecords()) {
+            while (iterator.hasNext()) {
+                KeyValue<ByteBuffer, ByteBuffer> record = iterator.nextRecord();
+                if (actual.size() == 1) {
+                    firstRecord = record;
+                } else if (actual.size() > 1) {
+                    assertSame(firstRecord, record);
+                }
+                actual.add(new Pair<>(
+                    StandardCharsets.UTF_8.decode(record.key().duplicate()).toString(),
+                    INTEGER_BINARY_DESERIALIZER.deserialize(record.value())));
+            }
+        }
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void testEmptyFile() throws IOException {
+        new BinaryFileSink<>(STRING_BINARY_SERIALIZER, INTEGER_BINARY_SERIALIZER, tempFile).close();
+        try (BinaryKeyValueFileIterator<String, Integer> iterator = new BinaryKeyValueFileIterator<>(
+                tempFile, STRING_BINARY_DESERIALIZER, INTEGER_BINARY_DESERIALIZER)) {
+            assertFalse(iterator.hasNext());
+        }
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(tempFile);
+    }
+}
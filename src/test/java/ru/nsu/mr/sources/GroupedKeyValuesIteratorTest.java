@@ -2,12 +2,17 @@ package ru.nsu.mr.sources;
 
 import org.junit.jupiter.api.BeforeEach;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
+import ru.nsu.mr.KeyValue;
 import ru.nsu.mr.Pair;
+import ru.nsu.mr.ReusablePair;
+import ru.nsu.mr.io.RawBytes;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -67,6 +72,40 @@ public class GroupedKeyValuesIteratorTest {
         assertFalse(groupedIterator.hasNext());
     }
 
+    @Test
+    public void testGroupingOverRefilledRecords() {
+        ByteBuffer key = ByteBuffer.allocate(1);
+        ReusablePair<ByteBuffer, Integer> record = new ReusablePair<>();
+        RecordIterator<ByteBuffer, Integer> refillingInput = new RecordIterator<>() {
+            @Override
+            public boolean hasNext() {
+                return inputIterator.hasNext();
+            }
+
+            @Override
+            public KeyValue<ByteBuffer, Integer> nextRecord() {
+                Pair<String, Integer> input = inputIterator.next();
+                key.clear().put(0, input.key().getBytes(StandardCharsets.UTF_8));
+                return record.set(key, input.value());
+            }
+        };
+        GroupedKeyValuesIterator<ByteBuffer, Integer> groupedIterator =
+            new GroupedKeyValuesIterator<>(refillingInput, RawBytes.reusableCopy()).reuseRecords();
+
+        List<String> keys = new ArrayList<>();
+        List<List<Integer>> values = new ArrayList<>();
+        while (groupedIterator.hasNext()) {
+            KeyValue<ByteBuffer, Iterator<Integer>> group = groupedIterator.nextRecord();
+            keys.add(StandardCharsets.UTF_8.decode(group.key().duplicate()).toString());
+            if (keys.size() != 2) {
+                values.add(toList(group.value()));
+            }
+        }
+
+        assertEquals(List.of("a", "b", "c", "d"), keys);
+        assertEquals(List.of(List.of(1, 2, 3, 4), List.of(5, 6, 7), List.of(8)), values);
+    }
+
     private List<Integer> toList(Iterator<Integer> iterator) {
         List<Integer> values = new ArrayList<>();
         while (iterator.hasNext()) {
@@ -0,0 +1,65 @@
+package ru.nsu.mr.sources;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.nsu.mr.InputSplit;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LineRecordIteratorTest {
+    private static final List<String> LINES = List.of("first line", "", "x", "a much longer third line", "", "last");
+
+    private Path tempFile;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        tempFile = Files.createTempFile("testLineRecordFile", ".txt");
+        Files.writeString(tempFile, String.join("\n", LINES) + "\n");
+    }
+
+    @Test
+    public void testWholeFileSplit() throws IOException {
+        assertEquals(LINES, readSplits(Files.size(tempFile)));
+    }
+
+    @Test
+    public void testEveryLineIsReadExactlyOnceAcrossSplits() throws IOException {
+        for (long splitSize = 1; splitSize <= Files.size(tempFile); ++splitSize) {
+            assertEquals(LINES, readSplits(splitSize), "split size " + splitSize);
+        }
+    }
+
+    @Test
+    public void testLastLineWithoutNewline() throws IOException {
+        Files.writeString(tempFile, "a\r\nbc");
+        for (long splitSize = 1; splitSize <= Files.size(tempFile); ++splitSize) {
+            assertEquals(List.of("a", "bc"), readSplits(splitSize), "split size " + splitSize);
+        }
+    }
+
+    private List<String> readSplits(long splitSize) throws IOException {
+        long fileSize = Files.size(tempFile);
+        List<String> lines = new ArrayList<>();
+        for (long start = 0; start < fileSize; start += splitSize) {
+            InputSplit split = new InputSplit(tempFile, start, Math.min(splitSize, fileSize - start));
+            try (LineRecordIterator iterator = new LineRecordIterator(split)) {
+                while (iterator.hasNext()) {
+                    lines.add(iterator.next().value());
+                }
+            }
+        }
+        return lines;
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(tempFile);
+    }
+}
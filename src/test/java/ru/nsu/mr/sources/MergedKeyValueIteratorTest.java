@@ -1,6 +1,8 @@
 package ru.nsu.mr.sources;
 import org.junit.jupiter.api.Test;
+import ru.nsu.mr.KeyValue;
 import ru.nsu.mr.Pair;
+import ru.nsu.mr.ReusablePair;
 
 import org.junit.jupiter.api.BeforeEach;
 
@@ -57,4 +59,95 @@ class MergedKeyValueIteratorTest {
             index++;
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testMergeOfSourcesRefillingOneRecord() {
+        List<Iterator<Pair<String, Integer>>> refillingIterators = new ArrayList<>();
+        for (Iterator<Pair<String, Integer>> iterator : iterators) {
+            ReusablePair<String, Integer> record = new ReusablePair<>();
+            refillingIterators.add(new RecordIterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public KeyValue<String, Integer> nextRecord() {
+                    Pair<String, Integer> next = iterator.next();
+                    return record.set(next.key(), next.value());
+                }
+            });
+        }
+
+        List<String> keys = new ArrayList<>();
+        MergedKeyValueIterator<String, Integer> mergedIterator =
+            new MergedKeyValueIterator<>(refillingIterators, Comparator.naturalOrder());
+        while (mergedIterator.hasNext()) {
+            keys.add(mergedIterator.nextRecord().key());
+        }
+
+        assertEquals(List.of("apple", "apple", "banana", "banana", "cherry", "date", "date", "fig"), keys);
+    }
+
+    @Test
+    public void testSourcesAreClosedWhenReadingHeadsFails() {
+        List<String> closed = new ArrayList<>();
+        List<Iterator<Pair<String, Integer>>> sources = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            String name = "source" + i;
+            boolean failing = i == 0;
+            sources.add(new ClosingIterator() {
+                @Override
+                public Pair<String, Integer> next() {
+                    if (failing) {
+                        throw new IllegalStateException("corrupt run");
+                    }
+                    return new Pair<>(name, 0);
+                }
+
+                @Override
+                public void close() {
+                    closed.add(name);
+                }
+            });
+        }
+
+        assertThrows(IllegalStateException.class, () -> new MergedKeyValueIterator<>(sources, Comparator.naturalOrder()));
+        assertEquals(List.of("source0", "source1", "source2"), closed);
+    }
+
+    @Test
+    public void testMergeOfManyRunsWithEmptyOnes() {
+        Random random = new Random(7);
+        for (int runsCount : new int[]{0, 1, 2, 7, 64}) {
+            List<Pair<Integer, Integer>> expected = new ArrayList<>();
+            List<Iterator<Pair<Integer, Integer>>> runs = new ArrayList<>();
+            for (int run = 0; run < runsCount; run++) {
+                List<Pair<Integer, Integer>> records = new ArrayList<>();
+                int size = run % 5 == 0 ? 0 : random.nextInt(100);
+                for (int i = 0; i < size; i++) {
+                    records.add(new Pair<>(random.nextInt(50), run));
+                }
+                records.sort(Comparator.comparing(Pair::key));
+                expected.addAll(records);
+                runs.add(records.iterator());
+            }
+            expected.sort(Comparator.<Pair<Integer, Integer>, Integer>comparing(Pair::key).thenComparing(Pair::value));
+
+            List<Pair<Integer, Integer>> actual = new ArrayList<>();
+            MergedKeyValueIterator<Integer, Integer> mergedIterator =
+                new MergedKeyValueIterator<>(runs, Comparator.naturalOrder());
+            while (mergedIterator.hasNext()) {
+                actual.add(mergedIterator.next());
+            }
+            assertEquals(expected, actual);
+        }
+    }
+
+    private abstract static class ClosingIterator implements Iterator<Pair<String, Integer>>, AutoCloseableSource {
+        @Override
+        public boolean hasNext() {
+            return true;
+        }
+    }
+}